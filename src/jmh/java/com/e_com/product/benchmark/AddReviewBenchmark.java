@@ -0,0 +1,76 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.event.ReviewOutbox;
+import com.e_com.product.feign.UserServiceClient;
+import com.e_com.product.feign.VerifiedUserCache;
+import com.e_com.product.model.Review;
+import com.e_com.product.readmodel.ReviewReadModel;
+import com.e_com.product.repository.ReviewRepository;
+import com.e_com.product.service.RatingSummaryService;
+import com.e_com.product.service.ReviewIngestionPipeline;
+import com.e_com.product.service.ReviewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@link ReviewService#addReview} with the user service, Mongo outbox and rating summaries
+ * stubbed out, so the numbers cover validation, user-cache lookups and request handling only.
+ * A pool of one user keeps the verified-user cache hot; a pool larger than the cache mostly misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AddReviewBenchmark {
+
+    @Param({"1", "1000000"})
+    private int userPool;
+
+    private ReviewService reviewService;
+
+    @Setup
+    public void setUp() {
+        UserServiceClient userServiceClient = (userId, authorization) -> {
+            UserServiceClient.UserDto user = new UserServiceClient.UserDto();
+            user.setId(userId);
+            user.setName("User " + userId);
+            return user;
+        };
+        VerifiedUserCache verifiedUserCache = new VerifiedUserCache(userServiceClient, new ObjectMapper(),
+                Duration.ofMinutes(10), Duration.ofSeconds(30), 100_000);
+
+        ReviewOutbox reviewOutbox = mock(ReviewOutbox.class, withSettings().stubOnly());
+        when(reviewOutbox.saveWithEvent(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        reviewService = new ReviewService(mock(ReviewRepository.class, withSettings().stubOnly()),
+                verifiedUserCache, reviewOutbox, mock(RatingSummaryService.class, withSettings().stubOnly()),
+                mock(ReviewReadModel.class, withSettings().stubOnly()),
+                new DefaultListableBeanFactory().getBeanProvider(ReviewIngestionPipeline.class));
+    }
+
+    @Benchmark
+    public Review addReview() {
+        Review review = new Review();
+        review.setProductId(ThreadLocalRandom.current().nextLong(1, 10_000));
+        review.setUserId(ThreadLocalRandom.current().nextLong(1, userPool + 1L));
+        review.setRating(4);
+        review.setComment("Solid build quality, battery lasts all day");
+        return reviewService.addReview(review);
+    }
+}
@@ -0,0 +1,79 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.cache.CompactValueSerializer;
+import com.e_com.product.config.CacheConfig;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductRatingSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value formats side by side: the JSON serializer the cache used before, the compact
+ * binary format, and the compact format with compression forced on. Bytes per entry are printed
+ * once per trial, next to the ns/op JMH reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "compact", "compact-deflate"})
+    private String format;
+
+    private RedisSerializer<Object> serializer;
+    private Product product;
+    private ProductRatingSummary summary;
+    private byte[] productBytes;
+    private byte[] summaryBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = CacheConfig.cacheObjectMapper();
+        serializer = switch (format) {
+            case "json" -> new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+            case "compact" -> new CompactValueSerializer(objectMapper, Object.class, 0);
+            case "compact-deflate" -> new CompactValueSerializer(objectMapper, Object.class, 1);
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        product = Stubs.product(42);
+        summary = new ProductRatingSummary(42L, 1_250, 5_310,
+                Map.of("1", 40L, "2", 60L, "3", 150L, "4", 400L, "5", 600L), LocalDateTime.of(2024, 5, 1, 12, 30));
+        productBytes = serializer.serialize(product);
+        summaryBytes = serializer.serialize(summary);
+        System.out.printf("%n%s: product %d bytes/entry, rating summary %d bytes/entry%n",
+                format, productBytes.length, summaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() {
+        return serializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeProduct() {
+        return serializer.deserialize(productBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeRatingSummary() {
+        return serializer.serialize(summary);
+    }
+
+    @Benchmark
+    public Object deserializeRatingSummary() {
+        return serializer.deserialize(summaryBytes);
+    }
+}
@@ -0,0 +1,108 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.filter.JwtAuthenticationFilter;
+import com.e_com.product.security.JwtPrincipal;
+import com.e_com.product.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token handling: the original four-parse path with the key rebuilt on every parse,
+ * against {@link JwtUtil#verify} served from the verified-token cache and with mostly unseen
+ * tokens, plus the whole {@link JwtAuthenticationFilter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "eW91cl9qd3Rfc2VjcmV0X2tleV8xMjM0NTY3ODkwMTIzNDU2Nzg5MDEyMzQ1Njc4OTA=";
+    private static final int UNSEEN_TOKENS = 100_000;
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil smallCacheJwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtil = new JwtUtil(SECRET, 10_000);
+        // Far fewer entries than distinct tokens, so nearly every verification parses
+        smallCacheJwtUtil = new JwtUtil(SECRET, 100);
+        filter = new JwtAuthenticationFilter(cachingJwtUtil);
+        token = token("user-0");
+        tokens = new String[UNSEEN_TOKENS];
+        for (int i = 0; i < UNSEEN_TOKENS; i++) {
+            tokens[i] = token("user-" + i);
+        }
+    }
+
+    /**
+     * What the filter did before: extract subject, validate (expiry check plus a second parse)
+     * and extract roles, decoding the secret and building a parser each time.
+     */
+    @Benchmark
+    public void legacyFourParses(Blackhole blackhole) {
+        blackhole.consume(legacyClaims(token).getSubject());
+        boolean valid = !legacyClaims(token).getExpiration().before(new Date()) && legacyClaims(token) != null;
+        blackhole.consume(valid);
+        blackhole.consume(legacyClaims(token).get("roles"));
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return cachingJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyUncached() {
+        return smallCacheJwtUtil.verify(tokens[ThreadLocalRandom.current().nextInt(UNSEEN_TOKENS)]);
+    }
+
+    @Benchmark
+    public void filterCachedToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reviews/user/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static String token(String subject) {
+        return Jwts.builder()
+                .subject(subject)
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+}
@@ -0,0 +1,94 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.cache.CacheBatchOperations;
+import com.e_com.product.cache.TwoTierCache;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.config.ProductCacheProperties;
+import com.e_com.product.model.Product;
+import com.e_com.product.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService#getProductById} through the real caching proxy and two-tier cache, with
+ * an in-memory map standing in for Redis and a stub repository standing in for MySQL. Measures
+ * the caching overhead itself, not network or database time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductCacheBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+
+    private AnnotationConfigApplicationContext context;
+    private ProductService productService;
+    private TwoTierCache cache;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        productService = context.getBean(ProductService.class);
+        cache = context.getBean(TwoTierCacheManager.class).getCache("products");
+        for (long id = 1; id <= PRODUCTS; id++) {
+            productService.getProductById(id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Product> cacheHit() {
+        return productService.getProductById(randomId());
+    }
+
+    // Includes the eviction that forces the miss (local, remote and invalidation message)
+    @Benchmark
+    public Optional<Product> cacheMiss() {
+        long id = randomId();
+        cache.evict(id);
+        return productService.getProductById(id);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class BenchmarkConfig {
+
+        @Bean
+        TwoTierCacheManager cacheManager() {
+            return new TwoTierCacheManager(new ConcurrentMapCacheManager("products"), new ProductCacheProperties(),
+                    message -> {
+                    }, CacheBatchOperations.ONE_BY_ONE);
+        }
+
+        @Bean
+        ProductService productService(TwoTierCacheManager cacheManager) {
+            return new ProductService(Stubs.productRepository(PRODUCTS), Stubs.unsupported(EntityManager.class),
+                    cacheManager, event -> {
+            });
+        }
+    }
+}
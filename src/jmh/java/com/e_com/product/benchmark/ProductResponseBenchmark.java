@@ -0,0 +1,116 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.cache.CompactValueSerializer;
+import com.e_com.product.config.CacheConfig;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.SerializedProduct;
+import com.e_com.product.service.ProductJsonService;
+import com.e_com.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Cost of writing a cached product as the {@code GET /api/products/{id}} response body: the
+ * previous path, where the cache hands back a {@link Product} that the Jackson message converter
+ * encodes, against the cached bytes from {@link ProductJsonService} copied out by the byte array
+ * converter. Remote variants start from the Redis value, as on a local tier miss. Run with
+ * {@code -PjmhProfilers=gc} for allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductResponseBenchmark {
+
+    private MappingJackson2HttpMessageConverter jsonConverter;
+    private ByteArrayHttpMessageConverter bytesConverter;
+    private CompactValueSerializer redisSerializer;
+    private Product product;
+    private SerializedProduct serialized;
+    private byte[] productRedisValue;
+    private byte[] serializedRedisValue;
+
+    @Setup
+    public void setUp() {
+        // Configured like the mapper Spring MVC writes responses with
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        bytesConverter = new ByteArrayHttpMessageConverter();
+        redisSerializer = new CompactValueSerializer(CacheConfig.cacheObjectMapper(), Object.class, 1024);
+
+        product = Stubs.product(42);
+        ProductService productService = mock(ProductService.class, withSettings().stubOnly());
+        when(productService.getProductById(42L)).thenReturn(Optional.of(product));
+        serialized = new ProductJsonService(productService, objectMapper, null, 512).getSerializedProduct(42L).orElseThrow();
+
+        productRedisValue = redisSerializer.serialize(product);
+        serializedRedisValue = redisSerializer.serialize(serialized);
+    }
+
+    @Benchmark
+    public HttpOutputMessage localHitProductObject() throws IOException {
+        HttpOutputMessage response = new DiscardingResponse();
+        jsonConverter.write(product, MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    @Benchmark
+    public HttpOutputMessage localHitSerializedBytes() throws IOException {
+        HttpOutputMessage response = new DiscardingResponse();
+        bytesConverter.write(serialized.getJson(), MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    @Benchmark
+    public HttpOutputMessage remoteHitProductObject() throws IOException {
+        HttpOutputMessage response = new DiscardingResponse();
+        jsonConverter.write(redisSerializer.deserialize(productRedisValue), MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    @Benchmark
+    public HttpOutputMessage remoteHitSerializedBytes() throws IOException {
+        HttpOutputMessage response = new DiscardingResponse();
+        SerializedProduct cached = (SerializedProduct) redisSerializer.deserialize(serializedRedisValue);
+        bytesConverter.write(cached.getJson(), MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    /**
+     * Response whose body goes nowhere, so the benchmarks measure encoding rather than buffering.
+     */
+    private static final class DiscardingResponse implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.model.Product;
+import com.e_com.product.search.ProductSearchIndex;
+import com.e_com.product.search.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory search index over a synthetic catalog. Sample-time mode records
+ * the latency distribution, so the JSON results carry p50/p99/p99.9 per query shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int QUERIES = 1_024;
+
+    @Param({"1000000"})
+    private int products;
+
+    private ProductSearchIndex index;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ProductSearchIndex();
+        for (long id = 1; id <= products; id++) {
+            index.index(new Product(id, words(random, 3), words(random, 20), 1.0 + random.nextInt(2_000),
+                    Stubs.CATEGORIES[random.nextInt(Stubs.CATEGORIES.length)], 0L));
+        }
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = words(random, 1 + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public SearchResult textQuery() {
+        return index.search(nextQuery(), null, null, null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchResult textQueryWithFilters() {
+        return index.search(nextQuery(), "Books", 100.0, 500.0, 0, 20);
+    }
+
+    @Benchmark
+    public SearchResult browseCategory() {
+        return index.search(null, "Books", null, null, 0, 20);
+    }
+
+    private String nextQuery() {
+        return queries[ThreadLocalRandom.current().nextInt(QUERIES)];
+    }
+
+    // Word frequencies are skewed so a few terms are very common, like real catalog text
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = (int) Math.min(VOCABULARY - 1, Math.floor(Math.pow(VOCABULARY, random.nextDouble())));
+            text.append(i == 0 ? "" : " ").append('w').append(Integer.toString(rank, 36));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.controller.ReiewController;
+import com.e_com.product.event.ReviewOutbox;
+import com.e_com.product.feign.UserServiceClient;
+import com.e_com.product.feign.VerifiedUserCache;
+import com.e_com.product.readmodel.ReviewReadModel;
+import com.e_com.product.repository.ReviewRepository;
+import com.e_com.product.service.RatingSummaryService;
+import com.e_com.product.service.ReviewIngestionPipeline;
+import com.e_com.product.service.ReviewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Load test for the request thread model: POST /api/reviews through Tomcat, the real
+ * {@link ReiewController} and {@link ReviewService}, and a Feign client calling a user-service
+ * stand-in that answers after a fixed delay. Every request uses a new user id, so each one waits
+ * on the stand-in. The same closed-loop load runs once on platform request threads and once with
+ * {@code spring.threads.virtual.enabled}, and throughput and latency percentiles are printed for both.
+ * <p>
+ * Run with {@code ./gradlew loadTest}, optionally with
+ * {@code -PloadTestArgs="--concurrency=2000 --latency=200 --duration=30"}. Needs Java 21.
+ */
+public class RequestThreadingLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int latencyMillis = Integer.parseInt(options.getOrDefault("latency", "200"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "20"));
+        String tomcatThreads = options.getOrDefault("tomcat-threads", "200");
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Virtual threads need Java 21; the virtual run will use platform threads");
+        }
+        // Lets Feign's HttpURLConnection client keep one connection per in-flight call alive
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+        HttpServer userService = startUserService(latencyMillis);
+        String userServiceUrl = "http://localhost:" + userService.getAddress().getPort();
+        try {
+            List<String> results = new ArrayList<>();
+            for (boolean virtual : new boolean[]{false, true}) {
+                // Command-line style arguments, so they win over application.properties on the classpath
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestApplication.class)
+                        .run("--server.port=0",
+                                "--spring.main.banner-mode=off",
+                                "--logging.level.root=WARN",
+                                "--server.tomcat.threads.max=" + tomcatThreads,
+                                "--spring.threads.virtual.enabled=" + virtual,
+                                "--load-test.user-service-url=" + userServiceUrl)) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    Result result = runLoad(port, concurrency, warmupSeconds, durationSeconds);
+                    results.add(String.format("%-9s %12.1f %10.1f %10.1f %10.1f %8d",
+                            virtual ? "virtual" : "platform", result.throughput(),
+                            result.percentile(0.50), result.percentile(0.99), result.percentile(0.999),
+                            result.errors()));
+                }
+            }
+            System.out.printf("%nPOST /api/reviews, %d concurrent clients, user service latency %d ms, " +
+                    "%s Tomcat threads in platform mode%n", concurrency, latencyMillis, tomcatThreads);
+            System.out.printf("%-9s %12s %10s %10s %10s %8s%n", "threads", "requests/s", "p50 ms", "p99 ms",
+                    "p99.9 ms", "errors");
+            results.forEach(System.out::println);
+        } finally {
+            userService.stop(0);
+        }
+    }
+
+    private static HttpServer startUserService(int latencyMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.createContext("/api/users/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String userId = path.substring(path.lastIndexOf('/') + 1);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"id\":" + userId + ",\"name\":\"User " + userId + "\",\"email\":\"user" + userId +
+                    "@example.com\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private static Result runLoad(int port, int concurrency, int warmupSeconds, int durationSeconds)
+            throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/reviews");
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        // Keeps its own executor: the client threads below are all blocked in send()
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long stopAt = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<List<Long>>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                long now;
+                while ((now = System.nanoTime()) < stopAt) {
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(reviewJson()))
+                            .build();
+                    int status;
+                    try {
+                        status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    long end = System.nanoTime();
+                    if (now >= measureFrom && end <= stopAt) {
+                        if (status == 200) {
+                            latencies.add(end - now);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            latencies.addAll(worker.get());
+        }
+        clients.shutdownNow();
+        latencies.sort(null);
+        return new Result(latencies, errors.get(), durationSeconds);
+    }
+
+    private static String reviewJson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"productId\":" + random.nextLong(1, 10_000) + ",\"userId\":" + random.nextLong(1, Long.MAX_VALUE) +
+                ",\"rating\":4,\"comment\":\"Solid build quality, battery lasts all day\"}";
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private record Result(List<Long> sortedLatencies, long errors, int durationSeconds) {
+
+        double throughput() {
+            return (double) sortedLatencies.size() / durationSeconds;
+        }
+
+        double percentile(double quantile) {
+            if (sortedLatencies.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(sortedLatencies.size() - 1, Math.ceil(quantile * sortedLatencies.size()) - 1);
+            return sortedLatencies.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Just the web stack and the review endpoint; Mongo, the outbox and rating summaries are
+     * stubbed so the user-service call is the only wait.
+     */
+    @Configuration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import(ReiewController.class)
+    static class LoadTestApplication {
+
+        @Bean
+        UserServiceClient userServiceClient(ObjectMapper objectMapper, Environment environment) {
+            return Feign.builder()
+                    .contract(new SpringMvcContract())
+                    .decoder((response, type) ->
+                            objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)))
+                    .target(UserServiceClient.class, environment.getRequiredProperty("load-test.user-service-url"));
+        }
+
+        @Bean
+        ReviewOutbox reviewOutbox() {
+            // A default answer rather than a stubbing: matching stubbings serializes concurrent calls
+            return mock(ReviewOutbox.class, withSettings().stubOnly()
+                    .defaultAnswer(invocation -> invocation.getArguments().length == 1 ? invocation.getArgument(0) : null));
+        }
+
+        @Bean
+        RatingSummaryService ratingSummaryService() {
+            return mock(RatingSummaryService.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        ReviewReadModel reviewReadModel() {
+            return mock(ReviewReadModel.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        ReviewService reviewService(UserServiceClient userServiceClient, ObjectMapper objectMapper,
+                                    ReviewOutbox reviewOutbox, RatingSummaryService ratingSummaryService,
+                                    ReviewReadModel reviewReadModel,
+                                    ObjectProvider<ReviewIngestionPipeline> ingestionPipeline) {
+            VerifiedUserCache verifiedUserCache = new VerifiedUserCache(userServiceClient, objectMapper,
+                    Duration.ofMinutes(10), Duration.ofSeconds(30), 100_000);
+            return new ReviewService(mock(ReviewRepository.class, withSettings().stubOnly()), verifiedUserCache,
+                    reviewOutbox, ratingSummaryService, reviewReadModel, ingestionPipeline);
+        }
+    }
+}
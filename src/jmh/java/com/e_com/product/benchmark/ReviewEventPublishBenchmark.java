@@ -0,0 +1,91 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.event.ReviewEventPublisher;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Review event throughput against an in-process Kafka broker with the producer settings from
+ * application.properties, per compression codec. Each invocation sends a batch of events and
+ * waits for every acknowledgement, as the outbox relay does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReviewEventPublishBenchmark {
+
+    private static final String TOPIC = "review-added-events";
+    private static final int BATCH = 1_000;
+
+    @Param({"none", "lz4", "zstd"})
+    private String compression;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private DefaultKafkaProducerFactory<String, ReviewAddedEvent> producerFactory;
+    private ReviewEventPublisher publisher;
+    private ReviewAddedEvent[] events;
+
+    @Setup
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 6, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 65_536);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        producerFactory = new DefaultKafkaProducerFactory<>(props);
+        publisher = new ReviewEventPublisher(new KafkaTemplate<>(producerFactory));
+
+        events = new ReviewAddedEvent[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            events[i] = new ReviewAddedEvent("review-" + i, (long) (i % 500), (long) i, 1 + i % 5,
+                    "Review text number " + i + " describing the product in a sentence or two",
+                    LocalDateTime.of(2024, 5, 1, 12, 0).plusSeconds(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishBatch() {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            ReviewAddedEvent event = events[i];
+            sends[i] = publisher.publish(TOPIC, String.valueOf(event.getProductId()), event);
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+}
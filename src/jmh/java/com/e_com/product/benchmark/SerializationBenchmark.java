@@ -0,0 +1,78 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.config.CacheConfig;
+import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the value serializers: the Redis cache serializer from {@link CacheConfig} for
+ * products and review events, and the Kafka JSON serializer review events are sent with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    private Jackson2JsonRedisSerializer<Object> cacheSerializer;
+    private JsonSerializer<ReviewAddedEvent> kafkaSerializer;
+    private Product product;
+    private ReviewAddedEvent event;
+    private byte[] productBytes;
+    private byte[] eventBytes;
+
+    @Setup
+    public void setUp() {
+        cacheSerializer = new Jackson2JsonRedisSerializer<>(CacheConfig.cacheObjectMapper(), Object.class);
+        kafkaSerializer = new JsonSerializer<>();
+        kafkaSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        product = Stubs.product(42);
+        event = new ReviewAddedEvent("665f1c2ab3e4d5f6a7b8c9d0", 42L, 7L, 4,
+                "Solid build quality, battery lasts all day", LocalDateTime.of(2024, 5, 1, 12, 30));
+        productBytes = cacheSerializer.serialize(product);
+        eventBytes = cacheSerializer.serialize(event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        kafkaSerializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() {
+        return cacheSerializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeProduct() {
+        return cacheSerializer.deserialize(productBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeReviewEvent() {
+        return cacheSerializer.serialize(event);
+    }
+
+    @Benchmark
+    public Object deserializeReviewEvent() {
+        return cacheSerializer.deserialize(eventBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeReviewEventForKafka() {
+        return kafkaSerializer.serialize("review-added-events", event);
+    }
+}
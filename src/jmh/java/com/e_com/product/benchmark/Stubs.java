@@ -0,0 +1,48 @@
+package com.e_com.product.benchmark;
+
+import com.e_com.product.model.Product;
+import com.e_com.product.repository.ProductRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/**
+ * In-memory stand-ins for the databases behind the services under benchmark.
+ */
+final class Stubs {
+
+    static final String[] CATEGORIES = {"Electronics", "Books", "Furniture", "Clothing", "Toys", "Garden"};
+
+    private Stubs() {
+    }
+
+    static Product product(long id) {
+        return new Product(id, "Product " + id, "Description of product " + id + " with a few more words",
+                10.0 + id % 990, CATEGORIES[(int) (id % CATEGORIES.length)], 0L);
+    }
+
+    /**
+     * Repository answering {@code findById} for ids 1..products with freshly built products, the
+     * way a database hands out new entity instances. Other methods are not supported.
+     */
+    static ProductRepository productRepository(long products) {
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> {
+                        long id = (Long) args[0];
+                        yield id >= 1 && id <= products ? Optional.of(product(id)) : Optional.empty();
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ProductRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T unsupported(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -2,11 +2,11 @@ package com.e_com.product;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableFeignClients
-@EnableCaching
+@EnableScheduling
 @SpringBootApplication
 public class ProductApplication {
 
@@ -0,0 +1,59 @@
+package com.e_com.product.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionControlProperties {
+
+    // With admission control off every request goes straight through
+    private boolean enabled = true;
+
+    // Endpoint groups by name, each a list of path patterns; every group has its own limits
+    private Map<String, List<String>> groups = new LinkedHashMap<>();
+
+    // Paths inside a group that are never limited, such as long-lived streams
+    private List<String> excludedPaths = new ArrayList<>();
+
+    // Budgets for callers without a valid token and for authenticated callers
+    private Limit anonymous = new Limit(10, 2, 100);
+    private Limit authenticated = new Limit(20, 4, 200);
+
+    // Latency growth tolerated over the long-term average before the limit shrinks
+    private double rttTolerance = 1.5;
+
+    // Weight of each new limit estimate, lower values move the limit more slowly
+    private double smoothing = 0.2;
+
+    // Completed requests averaged into one latency sample
+    private int sampleWindow = 20;
+
+    // Samples the long-term latency average spans
+    private int longWindow = 600;
+
+    // Sent as Retry-After with every rejection
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Data
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.e_com.product.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionControlStats {
+    private String group;
+    // "anonymous" or "authenticated"
+    private String caller;
+    private int limit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    // Admitted requests that failed with a server error and cut the limit
+    private long dropped;
+}
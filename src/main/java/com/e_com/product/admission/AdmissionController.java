@@ -0,0 +1,127 @@
+package com.e_com.product.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds one {@link GradientLimiter} per endpoint group and caller class, so anonymous traffic on
+ * the public catalog cannot use up the budget of signed-in callers and a slow review listing
+ * cannot starve product reads.
+ */
+@Component
+public class AdmissionController implements MeterBinder {
+
+    public static final String ANONYMOUS = "anonymous";
+    public static final String AUTHENTICATED = "authenticated";
+
+    private final boolean enabled;
+    private final Duration retryAfter;
+    private final List<PathPattern> excludedPaths;
+    private final List<Group> groups = new ArrayList<>();
+
+    public AdmissionController(AdmissionControlProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.retryAfter = properties.getRetryAfter();
+        this.excludedPaths = properties.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        for (Map.Entry<String, List<String>> entry : properties.getGroups().entrySet()) {
+            groups.add(new Group(entry.getKey(),
+                    entry.getValue().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                    limiter(properties, properties.getAnonymous()),
+                    limiter(properties, properties.getAuthenticated())));
+        }
+    }
+
+    private static GradientLimiter limiter(AdmissionControlProperties properties, AdmissionControlProperties.Limit limit) {
+        return new GradientLimiter(limit, properties.getRttTolerance(), properties.getSmoothing(),
+                properties.getSampleWindow(), properties.getLongWindow());
+    }
+
+    /**
+     * Finds the limiter for a request path, relative to the context path.
+     *
+     * @return the limiter, or null when the path is not limited
+     */
+    public GradientLimiter limiterFor(String path, boolean authenticated) {
+        if (!enabled) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern excluded : excludedPaths) {
+            if (excluded.matches(container)) {
+                return null;
+            }
+        }
+        for (Group group : groups) {
+            for (PathPattern pattern : group.patterns) {
+                if (pattern.matches(container)) {
+                    return authenticated ? group.authenticated : group.anonymous;
+                }
+            }
+        }
+        return null;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public List<AdmissionControlStats> getStats() {
+        List<AdmissionControlStats> stats = new ArrayList<>();
+        for (Group group : groups) {
+            stats.add(stats(group.name, ANONYMOUS, group.anonymous));
+            stats.add(stats(group.name, AUTHENTICATED, group.authenticated));
+        }
+        return stats;
+    }
+
+    private static AdmissionControlStats stats(String group, String caller, GradientLimiter limiter) {
+        return new AdmissionControlStats(group, caller, limiter.getLimit(), limiter.getInFlight(),
+                limiter.getAccepted(), limiter.getRejected(), limiter.getDropped());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Group group : groups) {
+            bind(registry, group.name, ANONYMOUS, group.anonymous);
+            bind(registry, group.name, AUTHENTICATED, group.authenticated);
+        }
+    }
+
+    private static void bind(MeterRegistry registry, String group, String caller, GradientLimiter limiter) {
+        Gauge.builder("admission.limit", limiter, GradientLimiter::getLimit)
+                .tags("group", group, "caller", caller)
+                .description("Current concurrency limit")
+                .register(registry);
+        Gauge.builder("admission.in.flight", limiter, GradientLimiter::getInFlight)
+                .tags("group", group, "caller", caller)
+                .description("Admitted requests still running")
+                .register(registry);
+        FunctionCounter.builder("admission.requests", limiter, GradientLimiter::getAccepted)
+                .tags("group", group, "caller", caller, "result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("admission.requests", limiter, GradientLimiter::getRejected)
+                .tags("group", group, "caller", caller, "result", "rejected")
+                .register(registry);
+        FunctionCounter.builder("admission.drops", limiter, GradientLimiter::getDropped)
+                .tags("group", group, "caller", caller)
+                .description("Admitted requests that failed with a server error")
+                .register(registry);
+    }
+
+    private record Group(String name, List<PathPattern> patterns, GradientLimiter anonymous,
+                         GradientLimiter authenticated) {
+    }
+}
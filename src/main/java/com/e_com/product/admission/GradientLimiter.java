@@ -0,0 +1,179 @@
+package com.e_com.product.admission;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that follows the latency gradient between a long-term and a recent average.
+ * <p>
+ * Completed requests are averaged in windows of {@code sampleWindow}. Each window moves the
+ * limit towards {@code limit * gradient + sqrt(limit)}, where the gradient is the long-term
+ * latency (times the tolerance) over the window's latency, capped at 1 and floored at 0.5: while
+ * latency holds, the square-root headroom lets the limit grow, and once requests start queueing
+ * behind MySQL, Mongo or Redis the limit shrinks in proportion. A request that fails with a server
+ * error cuts the limit multiplicatively instead, so timeouts shed load before they pile up. The
+ * limit only grows while at least half of it is in use, so a quiet period cannot inflate it.
+ */
+public class GradientLimiter {
+
+    // Failed requests cut the limit by this factor
+    private static final double BACKOFF_RATIO = 0.9;
+    // Windows averaged into the long-term latency before it starts decaying
+    private static final int WARMUP_WINDOWS = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int sampleWindow;
+    private final int longWindow;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private long windowRttNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double longRttNanos;
+    private long windows;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public GradientLimiter(AdmissionControlProperties.Limit limits, double rttTolerance, double smoothing,
+                           int sampleWindow, int longWindow) {
+        this(limits, rttTolerance, smoothing, sampleWindow, longWindow, System::nanoTime);
+    }
+
+    GradientLimiter(AdmissionControlProperties.Limit limits, double rttTolerance, double smoothing,
+                    int sampleWindow, int longWindow, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.minLimit = Math.max(1, limits.getMinLimit());
+        this.maxLimit = Math.max(this.minLimit, limits.getMaxLimit());
+        this.rttTolerance = Math.max(1.0, rttTolerance);
+        this.smoothing = smoothing;
+        this.sampleWindow = Math.max(1, sampleWindow);
+        this.longWindow = Math.max(WARMUP_WINDOWS, longWindow / this.sampleWindow);
+        this.limit = Math.min(maxLimit, Math.max(minLimit, limits.getInitialLimit()));
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight. The returned permit must be
+     * completed exactly once; later calls are ignored.
+     *
+     * @return the permit, or null when the limit is reached
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return null;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+        return new Permit(nanoClock.getAsLong(), current + 1);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        windowRttNanos += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (windowSamples < sampleWindow) {
+            return;
+        }
+        double shortRtt = (double) windowRttNanos / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowRttNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windows++;
+
+        if (windows <= WARMUP_WINDOWS) {
+            longRttNanos += (shortRtt - longRttNanos) / windows;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) / longWindow;
+        }
+        // After a long slow spell, let the baseline come back down rather than hold the limit low
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        if (maxInFlight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+        double estimate = current * gradient + Math.sqrt(current);
+        setLimit(current * (1 - smoothing) + estimate * smoothing);
+    }
+
+    private synchronized void onDrop() {
+        dropped.increment();
+        setLimit(limit * BACKOFF_RATIO);
+    }
+
+    private void setLimit(double newLimit) {
+        limit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+    }
+
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        // The request completed normally; its latency feeds the limit
+        public void onSuccess() {
+            if (release()) {
+                onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+
+        // The request failed in a way that suggests overload, such as a timeout or exhausted pool
+        public void onDropped() {
+            if (release()) {
+                onDrop();
+            }
+        }
+
+        private boolean release() {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
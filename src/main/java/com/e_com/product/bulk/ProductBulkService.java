@@ -0,0 +1,304 @@
+package com.e_com.product.bulk;
+
+import com.e_com.product.bulk.ProductRecordReader.ImportRecord;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.event.ProductChangedEvent;
+import com.e_com.product.model.Product;
+import com.e_com.product.repository.ProductBulkRepository;
+import com.e_com.product.service.ProductJsonService;
+import com.e_com.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bulk product import and export.
+ * <p>
+ * An import spools the request body to a temp file and returns at once; a single background
+ * thread then reads the file in chunks. Each chunk costs one name lookup and one JDBC insert
+ * batch and commits on its own, so a failure loses at most one chunk and progress is visible as
+ * it goes. Rejected records are written to a per-job CSV error report.
+ */
+@Slf4j
+@Service
+public class ProductBulkService {
+
+    private final ProductBulkRepository bulkRepository;
+    private final ProductService productService;
+    private final TwoTierCacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor importExecutor;
+    private final int chunkSize;
+    private final int retainedJobs;
+    // Insertion ordered so the oldest finished jobs are dropped first
+    private final Map<String, ProductImportJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public ProductBulkService(ProductBulkRepository bulkRepository, ProductService productService,
+                              TwoTierCacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                              @Value("${product.import.chunk-size:1000}") int chunkSize,
+                              @Value("${product.import.retained-jobs:20}") int retainedJobs) {
+        // One import at a time; concurrent imports would only contend on the same table
+        this(bulkRepository, productService, cacheManager, eventPublisher, objectMapper, transactionManager,
+                Executors.newSingleThreadExecutor(new CustomizableThreadFactory("product-import-")),
+                chunkSize, retainedJobs);
+    }
+
+    ProductBulkService(ProductBulkRepository bulkRepository, ProductService productService,
+                       TwoTierCacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                       Executor importExecutor, int chunkSize, int retainedJobs) {
+        this.bulkRepository = bulkRepository;
+        this.productService = productService;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importExecutor = importExecutor;
+        this.chunkSize = chunkSize;
+        this.retainedJobs = retainedJobs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (importExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Spools the input and queues it for import.
+     *
+     * @param warmCache also write the imported products to the product cache
+     */
+    public ProductImportStatus startImport(InputStream input, BulkFormat format, boolean warmCache) throws IOException {
+        Path spooled = Files.createTempFile("product-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        Path errorReport = Files.createTempFile("product-import-errors-", ".csv");
+        ProductImportJob job = new ProductImportJob(format, warmCache, spooled, errorReport);
+        try {
+            Files.copy(input, spooled, StandardCopyOption.REPLACE_EXISTING);
+            register(job);
+            importExecutor.execute(() -> runImport(job));
+        } catch (IOException | RejectedExecutionException e) {
+            job.deleteFiles();
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            throw e;
+        }
+        return job.toStatus();
+    }
+
+    public Optional<ProductImportStatus> getImportStatus(String jobId) {
+        return findJob(jobId).map(ProductImportJob::toStatus);
+    }
+
+    /**
+     * The error report ({@code line,error} CSV) of a finished job; empty while the job runs.
+     */
+    public Optional<Path> findErrorReport(String jobId) {
+        return findJob(jobId)
+                .filter(ProductImportJob::isFinished)
+                .map(job -> job.errorReport);
+    }
+
+    /**
+     * Streams the whole catalog to the output in id order, with the same memory profile as
+     * {@link ProductService#streamAllProducts}.
+     */
+    public void export(BulkFormat format, OutputStream output) {
+        try {
+            if (format == BulkFormat.CSV) {
+                output.write((ProductCsv.HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            productService.streamAllProducts(product -> {
+                try {
+                    if (format == BulkFormat.CSV) {
+                        output.write(ProductCsv.format(product).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        output.write(objectMapper.writeValueAsBytes(product));
+                        output.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void runImport(ProductImportJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = ProductImportStatus.State.RUNNING;
+        try (ProductRecordReader reader = new ProductRecordReader(
+                Files.newBufferedReader(job.input, StandardCharsets.UTF_8), job.format, objectMapper);
+             BufferedWriter errors = Files.newBufferedWriter(job.errorReport, StandardCharsets.UTF_8)) {
+            errors.write("line,error\n");
+            // Keyed by name, which also drops repeats within the chunk
+            Map<String, ImportRecord> chunk = new LinkedHashMap<>();
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                job.recordsRead++;
+                if (record.error() != null) {
+                    job.failed++;
+                    reportError(errors, record.lineNumber(), record.error());
+                } else if (chunk.putIfAbsent(record.product().getName(), record) != null) {
+                    job.duplicates++;
+                    reportError(errors, record.lineNumber(), "Duplicate name, skipped");
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(job, chunk, errors);
+                    chunk.clear();
+                }
+            }
+            importChunk(job, chunk, errors);
+            job.state = ProductImportStatus.State.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            log.error("Product import {} failed", job.id, e);
+            job.message = e.getMessage();
+            job.state = ProductImportStatus.State.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(job.input);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled import {}", job.input, e);
+            }
+        }
+        log.info("Product import {} {}: {} read, {} imported, {} duplicates, {} failed",
+                job.id, job.state, job.recordsRead, job.imported, job.duplicates, job.failed);
+    }
+
+    private void importChunk(ProductImportJob job, Map<String, ImportRecord> chunk, BufferedWriter errors)
+            throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportRecord> records = new ArrayList<>(chunk.values());
+        List<ImportRecord> existing = new ArrayList<>();
+        List<Product> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                Set<String> existingNames = bulkRepository.findExistingNames(chunk.keySet());
+                List<Product> products = new ArrayList<>(records.size());
+                for (ImportRecord record : records) {
+                    if (existingNames.contains(record.product().getName())) {
+                        existing.add(record);
+                    } else {
+                        products.add(record.product());
+                    }
+                }
+                bulkRepository.insertAll(products);
+                // Published inside the transaction so the product outbox records them with the chunk
+                for (Product product : products) {
+                    eventPublisher.publishEvent(new ProductChangedEvent(
+                            ProductChangedEvent.ChangeType.CREATED, product.getId(), product));
+                }
+                return products;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Product import {} lost a chunk of {} records", job.id, records.size(), e);
+            job.failed += records.size();
+            for (ImportRecord record : records) {
+                reportError(errors, record.lineNumber(), "Chunk rolled back: " + e.getMostSpecificCause().getMessage());
+            }
+            return;
+        }
+
+        job.duplicates += existing.size();
+        for (ImportRecord record : existing) {
+            reportError(errors, record.lineNumber(), "Product with this name already exists, skipped");
+        }
+        job.imported += inserted.size();
+        evictCached(job, inserted);
+        if (job.warmCache) {
+            warmCache(job, inserted);
+        }
+    }
+
+    // An id looked up before its product existed has a cached null (or 404 body); drop those, as
+    // createProduct does, now that the chunk is committed. Best effort like warming
+    private void evictCached(ProductImportJob job, List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        for (String cacheName : List.of(ProductService.PRODUCTS_CACHE, ProductJsonService.PRODUCT_JSON_CACHE)) {
+            try {
+                cacheManager.getCache(cacheName).evictAll(ids);
+            } catch (RuntimeException e) {
+                log.warn("Product import {} could not evict {} products from {}", job.id, ids.size(), cacheName, e);
+            }
+        }
+    }
+
+    // Best effort: the products are committed, a cache outage only costs later misses
+    private void warmCache(ProductImportJob job, List<Product> products) {
+        Map<Long, Product> entries = new LinkedHashMap<>();
+        products.forEach(product -> entries.put(product.getId(), product));
+        try {
+            cacheManager.getCache(ProductService.PRODUCTS_CACHE).putAll(entries);
+        } catch (RuntimeException e) {
+            log.warn("Product import {} could not warm the cache for {} products", job.id, entries.size(), e);
+        }
+    }
+
+    private static void reportError(BufferedWriter errors, long lineNumber, String error) throws IOException {
+        errors.write(lineNumber + "," + ProductCsv.quote(error) + "\n");
+    }
+
+    private void register(ProductImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<ProductImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() > retainedJobs && oldest.hasNext()) {
+                ProductImportJob candidate = oldest.next();
+                if (candidate.isFinished()) {
+                    candidate.deleteFiles();
+                    oldest.remove();
+                }
+            }
+        }
+    }
+
+    private Optional<ProductImportJob> findJob(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+}
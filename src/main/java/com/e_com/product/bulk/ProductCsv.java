@@ -0,0 +1,96 @@
+package com.e_com.product.bulk;
+
+import com.e_com.product.model.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 style CSV for products: comma separated, fields containing commas, quotes or line
+ * breaks are quoted, quotes inside are doubled. Exports start with {@link #HEADER}; imports map
+ * columns by their header name, so the id column of an export is accepted and ignored.
+ */
+public final class ProductCsv {
+
+    public static final String HEADER = "id,name,description,price,category";
+
+    private ProductCsv() {
+    }
+
+    public static String format(Product product) {
+        StringBuilder line = new StringBuilder();
+        line.append(product.getId() == null ? "" : product.getId()).append(',');
+        line.append(quote(product.getName())).append(',');
+        line.append(quote(product.getDescription())).append(',');
+        line.append(product.getPrice() == null ? "" : product.getPrice()).append(',');
+        line.append(quote(product.getCategory()));
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Reads the next record, following quoted fields across line breaks. Returns null at end of
+     * input; {@code lines} receives the number of physical lines consumed.
+     */
+    public static List<String> readRecord(BufferedReader reader, int[] lines) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lines[0] = 1;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Line break inside a quoted field
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                lines[0]++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * The value as a CSV field, quoted only when it has to be; null becomes an empty field.
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,55 @@
+package com.e_com.product.bulk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Mutable state of one import. Only the import thread writes it; the volatile fields let status
+ * requests read progress while the job runs.
+ */
+class ProductImportJob {
+
+    final String id = UUID.randomUUID().toString();
+    final BulkFormat format;
+    final boolean warmCache;
+    final Path input;
+    final Path errorReport;
+    final LocalDateTime createdAt = LocalDateTime.now();
+
+    volatile ProductImportStatus.State state = ProductImportStatus.State.QUEUED;
+    volatile long recordsRead;
+    volatile long imported;
+    volatile long duplicates;
+    volatile long failed;
+    volatile LocalDateTime startedAt;
+    volatile LocalDateTime finishedAt;
+    volatile String message;
+
+    ProductImportJob(BulkFormat format, boolean warmCache, Path input, Path errorReport) {
+        this.format = format;
+        this.warmCache = warmCache;
+        this.input = input;
+        this.errorReport = errorReport;
+    }
+
+    boolean isFinished() {
+        return state == ProductImportStatus.State.COMPLETED || state == ProductImportStatus.State.FAILED;
+    }
+
+    void deleteFiles() {
+        try {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(errorReport);
+        } catch (IOException e) {
+            // Temp files; the OS cleans up whatever is left
+        }
+    }
+
+    ProductImportStatus toStatus() {
+        return new ProductImportStatus(id, state, format, warmCache, recordsRead, imported, duplicates, failed,
+                createdAt, startedAt, finishedAt, message);
+    }
+}
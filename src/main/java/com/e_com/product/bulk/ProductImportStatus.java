@@ -0,0 +1,34 @@
+package com.e_com.product.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String jobId;
+    private State state;
+    private BulkFormat format;
+    private boolean warmCache;
+    // Non-blank records read so far
+    private long recordsRead;
+    private long imported;
+    // Records skipped because the name exists already, in the catalog or earlier in the same chunk
+    private long duplicates;
+    // Records rejected as invalid or lost with a chunk that failed to commit
+    private long failed;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Why the job stopped early, for FAILED jobs
+    private String message;
+}
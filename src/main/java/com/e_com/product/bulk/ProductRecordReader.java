@@ -0,0 +1,145 @@
+package com.e_com.product.bulk;
+
+import com.e_com.product.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads import input one product at a time. Records that cannot be turned into a product come
+ * back with an error instead of ending the read, so one bad line costs one line.
+ */
+public class ProductRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final BulkFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+
+    public ProductRecordReader(BufferedReader reader, BulkFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param lineNumber first input line of the record, for the error report
+     * @param product    the parsed product, null when {@code error} is set
+     */
+    public record ImportRecord(long lineNumber, Product product, String error) {
+    }
+
+    /**
+     * The next non-blank record, or null at end of input.
+     */
+    public ImportRecord next() throws IOException {
+        return format == BulkFormat.CSV ? nextCsv() : nextNdjson();
+    }
+
+    private ImportRecord nextNdjson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            Product product = objectMapper.readValue(line, Product.class);
+            product.setId(null);
+            return validate(lineNumber, product);
+        } catch (JsonProcessingException e) {
+            return new ImportRecord(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ImportRecord nextCsv() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        int[] consumed = new int[1];
+        List<String> fields;
+        long start;
+        do {
+            start = lineNumber + 1;
+            try {
+                fields = ProductCsv.readRecord(reader, consumed);
+            } catch (IllegalArgumentException e) {
+                // Only an unterminated quote gets here, and it has consumed the rest of the input
+                return new ImportRecord(start, null, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            lineNumber += consumed[0];
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        if (fields.size() != columns.size()) {
+            return new ImportRecord(start, null,
+                    "Expected " + columns.size() + " fields but found " + fields.size());
+        }
+        Product product = new Product();
+        product.setName(field(fields, "name"));
+        product.setDescription(field(fields, "description"));
+        product.setCategory(field(fields, "category"));
+        String price = field(fields, "price");
+        if (price != null) {
+            try {
+                product.setPrice(Double.parseDouble(price));
+            } catch (NumberFormatException e) {
+                return new ImportRecord(start, null, "Invalid price '" + price + "'");
+            }
+        }
+        return validate(start, product);
+    }
+
+    private void readHeader() throws IOException {
+        int[] consumed = new int[1];
+        List<String> header = ProductCsv.readRecord(reader, consumed);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        lineNumber += consumed[0];
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must contain a name column");
+        }
+    }
+
+    // Empty fields are treated as missing values
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static ImportRecord validate(long lineNumber, Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return new ImportRecord(lineNumber, null, "Name is required");
+        }
+        if (product.getPrice() != null && (product.getPrice() < 0 || product.getPrice().isNaN())) {
+            return new ImportRecord(lineNumber, null, "Price must not be negative");
+        }
+        return new ImportRecord(lineNumber, product, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.e_com.product.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-key access to a remote cache, so batch lookups cost one round trip instead of one per key.
+ */
+public interface CacheBatchOperations {
+
+    /**
+     * Falls back to one call per key; used for caches without a native multi-key command.
+     */
+    CacheBatchOperations ONE_BY_ONE = new CacheBatchOperations() {
+        @Override
+        public List<Cache.ValueWrapper> getAll(Cache cache, List<?> keys) {
+            List<Cache.ValueWrapper> values = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                values.add(cache.get(key));
+            }
+            return values;
+        }
+
+        @Override
+        public void putAll(Cache cache, Map<?, ?> entries) {
+            entries.forEach(cache::put);
+        }
+
+        @Override
+        public void evictAll(Cache cache, Collection<?> keys) {
+            keys.forEach(cache::evict);
+        }
+    };
+
+    // Values in key order, with a null element for every miss
+    List<Cache.ValueWrapper> getAll(Cache cache, List<?> keys);
+
+    void putAll(Cache cache, Map<?, ?> entries);
+
+    void evictAll(Cache cache, Collection<?> keys);
+}
@@ -0,0 +1,19 @@
+package com.e_com.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    // Node that made the change; it skips its own messages
+    private String origin;
+    private String cacheName;
+    // Keys to drop from the local tier; empty means clear the whole cache
+    private List<String> keys;
+}
@@ -0,0 +1,10 @@
+package com.e_com.product.cache;
+
+/**
+ * Broadcasts local-tier invalidations to the other nodes sharing the remote cache.
+ */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+
+    void publish(CacheInvalidationMessage message);
+}
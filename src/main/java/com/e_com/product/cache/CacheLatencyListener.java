@@ -0,0 +1,17 @@
+package com.e_com.product.cache;
+
+/**
+ * Told how long the slow paths of a {@link TwoTierCache} took: reads against the remote tier
+ * (hit or miss, single or batched) and value loader calls against the backing store.
+ */
+public interface CacheLatencyListener {
+
+    CacheLatencyListener NONE = new CacheLatencyListener() {
+    };
+
+    default void remoteRead(long nanos) {
+    }
+
+    default void load(long nanos) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.e_com.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheTierStats {
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+}
@@ -0,0 +1,338 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.SerializedProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary Redis value format for cache entries.
+ * <p>
+ * Every value starts with a format version byte and a tag byte. The low 7 bits of the tag name
+ * the codec, the high bit marks a deflated body. {@link Product}, {@link ProductRatingSummary} and
+ * {@link SerializedProduct} have hand-written codecs (null mask, varints, length-prefixed UTF-8 or
+ * raw bytes); anything else is written
+ * as JSON behind its class name. Values written by the previous JSON serializer start with a
+ * printable character and are still read, as the configured legacy type, so the cache does not
+ * need flushing on upgrade. Values in an older format version are read as well: version 1 products
+ * have no entity version and read as version 0, which is what rows written before the version
+ * column existed hold. Values in a version this node does not know read as a cache miss.
+ */
+@Slf4j
+public class CompactValueSerializer implements RedisSerializer<Object> {
+
+    // 2: products carry their entity version
+    static final byte FORMAT_VERSION = 2;
+    // Oldest format version still read
+    private static final byte FIRST_FORMAT_VERSION = 1;
+
+    private static final int TAG_PRODUCT = 1;
+    private static final int TAG_RATING_SUMMARY = 2;
+    private static final int TAG_SERIALIZED_PRODUCT = 3;
+    private static final int TAG_JSON = 127;
+    private static final int COMPRESSED = 0x80;
+    private static final String ALLOWED_JSON_PACKAGE = "com.e_com.product.";
+
+    private final ObjectMapper objectMapper;
+    private final Class<?> legacyType;
+    // Bodies at least this long are deflated when that makes them smaller; 0 or less disables it
+    private final int compressionThreshold;
+
+    public CompactValueSerializer(ObjectMapper objectMapper, Class<?> legacyType, int compressionThreshold) {
+        this.objectMapper = objectMapper;
+        this.legacyType = legacyType;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Output body = new Output();
+        int tag;
+        if (value instanceof Product product) {
+            tag = TAG_PRODUCT;
+            writeProduct(body, product);
+        } else if (value instanceof ProductRatingSummary summary) {
+            tag = TAG_RATING_SUMMARY;
+            writeRatingSummary(body, summary);
+        } else if (value instanceof SerializedProduct serialized) {
+            tag = TAG_SERIALIZED_PRODUCT;
+            writeSerializedProduct(body, serialized);
+        } else {
+            tag = TAG_JSON;
+            writeJson(body, value);
+        }
+
+        byte[] raw = body.toByteArray();
+        byte[] compressed = compressionThreshold > 0 && raw.length >= compressionThreshold ? deflate(raw) : null;
+        Output out = new Output();
+        out.write(FORMAT_VERSION);
+        if (compressed != null && compressed.length < raw.length) {
+            out.write(tag | COMPRESSED);
+            out.writeVarLong(raw.length);
+            out.write(compressed, 0, compressed.length);
+        } else {
+            out.write(tag);
+            out.write(raw, 0, raw.length);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte version = bytes[0];
+        if (version < FIRST_FORMAT_VERSION || version > FORMAT_VERSION) {
+            if (version >= 0x20) {
+                return readLegacyJson(bytes);
+            }
+            log.debug("Treating cache value in unknown format version {} as a miss", version);
+            return null;
+        }
+
+        int tag = bytes[1] & 0xFF;
+        ByteBuffer body = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        if ((tag & COMPRESSED) != 0) {
+            int length = (int) readVarLong(body);
+            body = ByteBuffer.wrap(inflate(bytes, body.position(), body.remaining(), length));
+            tag &= ~COMPRESSED;
+        }
+        return switch (tag) {
+            case TAG_PRODUCT -> readProduct(body, version);
+            case TAG_RATING_SUMMARY -> readRatingSummary(body);
+            case TAG_SERIALIZED_PRODUCT -> readSerializedProduct(body);
+            case TAG_JSON -> readJson(body);
+            default -> throw new SerializationException("Unknown cache value tag " + tag);
+        };
+    }
+
+    private static void writeProduct(Output out, Product product) {
+        int mask = (product.getId() != null ? 1 : 0)
+                | (product.getName() != null ? 2 : 0)
+                | (product.getDescription() != null ? 4 : 0)
+                | (product.getPrice() != null ? 8 : 0)
+                | (product.getCategory() != null ? 16 : 0);
+        out.write(mask);
+        if (product.getId() != null) {
+            out.writeVarLong(product.getId());
+        }
+        out.writeString(product.getName());
+        out.writeString(product.getDescription());
+        if (product.getPrice() != null) {
+            out.writeDouble(product.getPrice());
+        }
+        out.writeString(product.getCategory());
+        out.writeVarLong(product.getVersion());
+    }
+
+    private static Product readProduct(ByteBuffer in, byte formatVersion) {
+        int mask = in.get();
+        Product product = new Product();
+        product.setId((mask & 1) != 0 ? readVarLong(in) : null);
+        product.setName((mask & 2) != 0 ? readString(in) : null);
+        product.setDescription((mask & 4) != 0 ? readString(in) : null);
+        product.setPrice((mask & 8) != 0 ? in.getDouble() : null);
+        product.setCategory((mask & 16) != 0 ? readString(in) : null);
+        product.setVersion(formatVersion >= 2 ? readVarLong(in) : 0L);
+        return product;
+    }
+
+    private static void writeRatingSummary(Output out, ProductRatingSummary summary) {
+        out.write((summary.getProductId() != null ? 1 : 0) | (summary.getLastUpdated() != null ? 2 : 0));
+        if (summary.getProductId() != null) {
+            out.writeVarLong(summary.getProductId());
+        }
+        out.writeVarLong(summary.getCount());
+        out.writeVarLong(summary.getSum());
+        Map<String, Long> histogram = summary.getHistogram() == null ? Map.of() : summary.getHistogram();
+        for (int rating = ProductRatingSummary.MIN_RATING; rating <= ProductRatingSummary.MAX_RATING; rating++) {
+            out.writeVarLong(histogram.getOrDefault(String.valueOf(rating), 0L));
+        }
+        if (summary.getLastUpdated() != null) {
+            out.writeVarLong(summary.getLastUpdated().toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(summary.getLastUpdated().getNano());
+        }
+    }
+
+    private static ProductRatingSummary readRatingSummary(ByteBuffer in) {
+        int mask = in.get();
+        ProductRatingSummary summary = new ProductRatingSummary();
+        summary.setProductId((mask & 1) != 0 ? readVarLong(in) : null);
+        summary.setCount(readVarLong(in));
+        summary.setSum(readVarLong(in));
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int rating = ProductRatingSummary.MIN_RATING; rating <= ProductRatingSummary.MAX_RATING; rating++) {
+            histogram.put(String.valueOf(rating), readVarLong(in));
+        }
+        summary.setHistogram(histogram);
+        if ((mask & 2) != 0) {
+            summary.setLastUpdated(LocalDateTime.ofEpochSecond(readVarLong(in), (int) readVarLong(in), ZoneOffset.UTC));
+        }
+        return summary;
+    }
+
+    private static void writeSerializedProduct(Output out, SerializedProduct serialized) {
+        out.writeVarLong(serialized.getVersion());
+        out.writeByteArray(serialized.getJson());
+        out.writeByteArray(serialized.getGzip());
+    }
+
+    private static SerializedProduct readSerializedProduct(ByteBuffer in) {
+        return new SerializedProduct(readVarLong(in), readByteArray(in), readByteArray(in));
+    }
+
+    private void writeJson(Output out, Object value) {
+        out.writeString(value.getClass().getName());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            out.write(json, 0, json.length);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + value.getClass().getName() + " as JSON", e);
+        }
+    }
+
+    private Object readJson(ByteBuffer in) {
+        String className = readString(in);
+        // Only our own types and java.lang values are instantiated from cache contents
+        if (className == null || !(className.startsWith(ALLOWED_JSON_PACKAGE) || className.startsWith("java.lang."))) {
+            throw new SerializationException("Refusing to read cached value of type " + className);
+        }
+        try {
+            Class<?> type = Class.forName(className, false, getClass().getClassLoader());
+            return objectMapper.readValue(in.array(), in.arrayOffset() + in.position(), in.remaining(), type);
+        } catch (ClassNotFoundException | IOException e) {
+            throw new SerializationException("Could not read cached " + className, e);
+        }
+    }
+
+    private Object readLegacyJson(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, legacyType);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read legacy JSON cache value", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = deflater.deflate(buffer);
+            // Output that does not fit in the input size is not worth keeping
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length, int inflatedLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] raw = new byte[inflatedLength];
+            if (inflater.inflate(raw) != inflatedLength) {
+                throw new SerializationException("Truncated compressed cache value");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in cache value");
+    }
+
+    // Length is stored plus one so that 0 can stand for null
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // Same length encoding as strings
+    private static byte[] readByteArray(ByteBuffer in) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        in.get(value);
+        return value;
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        private Output() {
+            super(64);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (bits >>> shift));
+            }
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeByteArray(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeByteArray(byte[] value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            writeVarLong(value.length + 1L);
+            write(value, 0, value.length);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.e_com.product.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate access counts for long keys in fixed memory: a count-min sketch (four rows of
+ * counters, the estimate is the smallest) plus a bounded set of heavy-hitter candidates so the
+ * top keys can be listed without scanning every key ever seen. Estimates never undercount.
+ */
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final int capacity;
+    private final ConcurrentHashMap<Long, Long> candidates = new ConcurrentHashMap<>();
+
+    // Smallest estimate kept after the last trim; colder keys are not worth tracking
+    private volatile long admissionThreshold;
+
+    /**
+     * @param width    counters per row, rounded up to a power of two
+     * @param capacity how many heavy-hitter candidates to keep
+     */
+    public FrequencySketch(int width, int capacity) {
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(this.width * SEEDS.length);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts one access and returns the new estimate for the key.
+     */
+    public long increment(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(key, row)));
+        }
+        if (estimate > admissionThreshold || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            if (candidates.size() > capacity * 2) {
+                trim();
+            }
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.get(index(key, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns up to {@code capacity} of the most accessed keys with their estimates, hottest
+     * first, and starts counting from zero again.
+     */
+    public Map<Long, Long> drain() {
+        List<Long> keys = new ArrayList<>(candidates.keySet());
+        Map<Long, Long> top = new LinkedHashMap<>();
+        keys.stream()
+                .map(key -> Map.entry(key, estimate(key)))
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(capacity)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        candidates.clear();
+        admissionThreshold = 0;
+        return top;
+    }
+
+    // Keeps exactly the top capacity candidates, so ties at the threshold cannot keep the set oversized
+    private synchronized void trim() {
+        if (candidates.size() <= capacity * 2) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));
+        entries.subList(capacity, entries.size()).forEach(entry -> candidates.remove(entry.getKey()));
+        admissionThreshold = entries.get(capacity - 1).getValue();
+    }
+
+    private int index(long key, int row) {
+        long hash = (key + row) * SEEDS[row];
+        hash ^= hash >>> 29;
+        return row * width + (int) (hash & mask);
+    }
+}
@@ -0,0 +1,33 @@
+package com.e_com.product.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Redis TTL that adds a random share of up to {@code jitter * ttl}, so entries written
+ * together do not all expire at the same instant.
+ */
+public class JitteredTtl implements RedisCacheWriter.TtlFunction {
+
+    private final long ttlMillis;
+    private final long maxJitterMillis;
+
+    public JitteredTtl(Duration ttl, double jitter) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxJitterMillis = (long) (ttlMillis * Math.max(0, jitter));
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        return Duration.ofMillis(nextMillis());
+    }
+
+    public long nextMillis() {
+        if (maxJitterMillis == 0) {
+            return ttlMillis;
+        }
+        return ttlMillis + ThreadLocalRandom.current().nextLong(maxJitterMillis + 1);
+    }
+}
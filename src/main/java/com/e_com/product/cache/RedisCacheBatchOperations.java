@@ -0,0 +1,130 @@
+package com.e_com.product.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads {@link RedisCache} entries with a single MGET, writes them in one pipeline and evicts
+ * them with a single DEL, using the
+ * cache's own key prefix, serializers and TTL function so entries stay interchangeable with the
+ * ones written through the regular {@link Cache} API.
+ */
+@RequiredArgsConstructor
+public class RedisCacheBatchOperations implements CacheBatchOperations {
+
+    // Same marker RedisCache writes for cached nulls
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final RedisConnectionFactory connectionFactory;
+
+    @Override
+    public List<Cache.ValueWrapper> getAll(Cache cache, List<?> keys) {
+        if (!(cache instanceof RedisCache redisCache)) {
+            return ONE_BY_ONE.getAll(cache, keys);
+        }
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        byte[][] rawKeys = keys.stream()
+                .map(key -> serializeKey(redisCache, config, key))
+                .toArray(byte[][]::new);
+
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+
+        List<Cache.ValueWrapper> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] rawValue = rawValues != null ? rawValues.get(i) : null;
+            values.add(rawValue == null ? null : toValueWrapper(config, rawValue));
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(Cache cache, Map<?, ?> entries) {
+        if (!(cache instanceof RedisCache redisCache)) {
+            ONE_BY_ONE.putAll(cache, entries);
+            return;
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            entries.forEach((key, value) -> {
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                connection.stringCommands().set(
+                        serializeKey(redisCache, config, key),
+                        serializeValue(config, value),
+                        ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                        RedisStringCommands.SetOption.upsert());
+            });
+            connection.closePipeline();
+        }
+    }
+
+    @Override
+    public void evictAll(Cache cache, Collection<?> keys) {
+        if (!(cache instanceof RedisCache redisCache)) {
+            ONE_BY_ONE.evictAll(cache, keys);
+            return;
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        byte[][] rawKeys = keys.stream()
+                .map(key -> serializeKey(redisCache, config, key))
+                .toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(rawKeys);
+        }
+    }
+
+    private static byte[] serializeKey(RedisCache cache, RedisCacheConfiguration config, Object key) {
+        String cacheKey = String.valueOf(key);
+        if (config.usePrefix()) {
+            cacheKey = config.getKeyPrefixFor(cache.getName()) + cacheKey;
+        }
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+
+    private static byte[] serializeValue(RedisCacheConfiguration config, Object value) {
+        if (value == null || value instanceof NullValue) {
+            return BINARY_NULL_VALUE;
+        }
+        return ByteUtils.getBytes(config.getValueSerializationPair().write(value));
+    }
+
+    // Only the null marker is a cached null. A value the serializer cannot read (a format version
+    // this node does not know) reads as null too, and is a miss like it is for RedisCache.get
+    private static Cache.ValueWrapper toValueWrapper(RedisCacheConfiguration config, byte[] rawValue) {
+        if (Arrays.equals(BINARY_NULL_VALUE, rawValue)) {
+            return new SimpleValueWrapper(null);
+        }
+        Object value = config.getValueSerializationPair().read(ByteBuffer.wrap(rawValue));
+        return value != null ? new SimpleValueWrapper(value) : null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.e_com.product.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RedisCacheInvalidationPublisher implements CacheInvalidationPublisher {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            // Peers fall back to the local TTL, so a lost message only delays coherence
+            log.warn("Failed to publish cache invalidation for {} {}: {}",
+                    message.getCacheName(), message.getKeys(), e.getMessage());
+        }
+    }
+}
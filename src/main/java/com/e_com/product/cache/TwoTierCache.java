@@ -0,0 +1,515 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.config.ProductCacheProperties.CacheSpec;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Cache} that keeps a bounded in-process tier in front of a shared remote cache.
+ * Reads try the local tier first and populate it from the remote one; writes go to the remote
+ * tier first and then announce the change so every other node drops its local copy.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)}) are
+ * coalesced so each key has at most one loader in flight per node. Local copies past their
+ * freshness window are served stale while a single background refresh runs, and fresh copies
+ * may be refreshed early with a probability that rises towards expiry (XFetch).
+ * <p>
+ * Every write and eviction first moves the key's generation on, and a load or remote read only
+ * stores its value if the generation it started under is still current, so a load that began
+ * before a {@code put} or {@code evict} cannot put the old value back afterwards.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    // Keys share generation stripes, so a write may also discard an unrelated load; that load's
+    // value is still returned to its callers, it is only not cached
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> local;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final String nodeId;
+    private final Executor refreshExecutor;
+    private final CacheBatchOperations batchOperations;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    // Moved on by clear() and invalidate(), which cover every key
+    private final AtomicLong allKeysGeneration = new AtomicLong();
+
+    private final long localTtlNanos;
+    private final long maxLocalJitterNanos;
+    private final double earlyRefreshBeta;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder localPuts = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder remotePuts = new LongAdder();
+    private final LongAdder remoteEvictions = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedWaits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    private volatile CacheLatencyListener latencyListener = CacheLatencyListener.NONE;
+
+    public TwoTierCache(String name, Cache remote, long localMaximumSize, CacheSpec spec,
+                        CacheInvalidationPublisher invalidationPublisher, String nodeId, Executor refreshExecutor,
+                        CacheBatchOperations batchOperations) {
+        this.name = name;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.nodeId = nodeId;
+        this.refreshExecutor = refreshExecutor;
+        this.batchOperations = batchOperations;
+        this.localTtlNanos = spec.getLocalTtl().toNanos();
+        this.maxLocalJitterNanos = (long) (localTtlNanos * Math.max(0, spec.getTtlJitter()));
+        this.earlyRefreshBeta = spec.getEarlyRefreshBeta();
+        // Physically keep entries for the longest freshness window plus the stale window
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(spec.getLocalTtl()
+                        .plusNanos(maxLocalJitterNanos)
+                        .plus(spec.getStaleWhileRevalidate()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = toLocalKey(key);
+        LocalEntry entry = local.getIfPresent(localKey);
+        // Without a loader a stale copy cannot be revalidated, so it counts as a miss
+        if (entry != null && entry.isFresh(System.nanoTime())) {
+            localHits.increment();
+            return entry;
+        }
+        localMisses.increment();
+        return readRemote(key, localKey, generation(localKey));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        long now = System.nanoTime();
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null) {
+            if (entry.isFresh(now)) {
+                localHits.increment();
+                if (shouldRefreshEarly(entry, now)) {
+                    refreshInBackground(key, localKey, valueLoader);
+                }
+            } else {
+                staleHits.increment();
+                refreshInBackground(key, localKey, valueLoader);
+            }
+            return (T) entry.get();
+        }
+        localMisses.increment();
+        return (T) loadCoalesced(key, localKey, valueLoader);
+    }
+
+    /**
+     * Looks up many keys at once: fresh local copies first, then one multi-key read against the
+     * remote tier for the rest. The result is in key order, with a null element for every miss.
+     */
+    public List<ValueWrapper> getAll(List<?> keys) {
+        List<ValueWrapper> values = new ArrayList<>(keys.size());
+        List<Object> remoteKeys = new ArrayList<>();
+        List<Integer> remotePositions = new ArrayList<>();
+        long now = System.nanoTime();
+        for (int i = 0; i < keys.size(); i++) {
+            LocalEntry entry = local.getIfPresent(toLocalKey(keys.get(i)));
+            if (entry != null && entry.isFresh(now)) {
+                localHits.increment();
+                values.add(entry);
+            } else {
+                localMisses.increment();
+                values.add(null);
+                remoteKeys.add(keys.get(i));
+                remotePositions.add(i);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return values;
+        }
+
+        long[] generations = new long[remoteKeys.size()];
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            generations[i] = generation(toLocalKey(remoteKeys.get(i)));
+        }
+        long start = System.nanoTime();
+        List<ValueWrapper> remoteValues = batchOperations.getAll(remote, remoteKeys);
+        long batchNanos = System.nanoTime() - start;
+        latencyListener.remoteRead(batchNanos);
+        long loadNanos = batchNanos / remoteKeys.size();
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            ValueWrapper remoteValue = remoteValues.get(i);
+            if (remoteValue == null) {
+                remoteMisses.increment();
+                continue;
+            }
+            remoteHits.increment();
+            values.set(remotePositions.get(i),
+                    putLocalIfCurrent(toLocalKey(remoteKeys.get(i)), remoteValue, loadNanos, generations[i]));
+        }
+        return values;
+    }
+
+    /**
+     * Writes many entries to both tiers with one remote round trip and one invalidation message.
+     */
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, Object> localEntries = new LinkedHashMap<>();
+        entries.forEach((key, value) -> localEntries.put(toLocalKey(key), value));
+        localEntries.keySet().forEach(this::startWrite);
+        batchOperations.putAll(remote, entries);
+        remotePuts.add(entries.size());
+        localEntries.forEach((localKey, value) -> putLocal(localKey, value, 0));
+        publish(List.copyOf(localEntries.keySet()));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = toLocalKey(key);
+        startWrite(localKey);
+        remote.put(key, value);
+        remotePuts.increment();
+        putLocal(localKey, value, 0);
+        publish(List.of(localKey));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = toLocalKey(key);
+        startWrite(localKey);
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing != null) {
+            putLocal(localKey, existing.get(), 0);
+            return existing;
+        }
+        remotePuts.increment();
+        putLocal(localKey, value, 0);
+        publish(List.of(localKey));
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = toLocalKey(key);
+        startWrite(localKey);
+        remote.evict(key);
+        remoteEvictions.increment();
+        local.invalidate(localKey);
+        publish(List.of(localKey));
+    }
+
+    /**
+     * Evicts many keys from both tiers with one remote round trip and one invalidation message.
+     */
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> localKeys = keys.stream().map(TwoTierCache::toLocalKey).toList();
+        localKeys.forEach(this::startWrite);
+        batchOperations.evictAll(remote, keys);
+        remoteEvictions.add(keys.size());
+        local.invalidateAll(localKeys);
+        publish(localKeys);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = toLocalKey(key);
+        startWrite(localKey);
+        boolean evicted = remote.evictIfPresent(key);
+        remoteEvictions.increment();
+        local.invalidate(localKey);
+        publish(List.of(localKey));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        startWriteAll();
+        remote.clear();
+        local.invalidateAll();
+        publish(List.of());
+    }
+
+    @Override
+    public boolean invalidate() {
+        startWriteAll();
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        publish(List.of());
+        return invalidated;
+    }
+
+    /**
+     * Applies an invalidation received from another node. Only the local tier is touched;
+     * the remote tier already holds the new state.
+     */
+    public void invalidateLocal(Collection<String> keys) {
+        invalidationsReceived.increment();
+        if (keys == null || keys.isEmpty()) {
+            startWriteAll();
+            local.invalidateAll();
+        } else {
+            keys.forEach(this::startWrite);
+            local.invalidateAll(keys);
+        }
+    }
+
+    public void setLatencyListener(CacheLatencyListener latencyListener) {
+        this.latencyListener = latencyListener != null ? latencyListener : CacheLatencyListener.NONE;
+    }
+
+    public TwoTierCacheStats getStats() {
+        return new TwoTierCacheStats(
+                name,
+                local.estimatedSize(),
+                new CacheTierStats(localHits.sum(), localMisses.sum(),
+                        localPuts.sum(), local.stats().evictionCount()),
+                new CacheTierStats(remoteHits.sum(), remoteMisses.sum(),
+                        remotePuts.sum(), remoteEvictions.sum()),
+                invalidationsReceived.sum(),
+                loads.sum(),
+                coalescedWaits.sum(),
+                staleHits.sum(),
+                refreshes.sum());
+    }
+
+    private Object loadCoalesced(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, load);
+        if (existing != null) {
+            coalescedWaits.increment();
+            return await(key, valueLoader, existing);
+        }
+        try {
+            Object value = loadThrough(key, localKey, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    private void refreshInBackground(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, refresh) != null) {
+            return;
+        }
+        refreshes.increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh.complete(loadThrough(key, localKey, valueLoader));
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of {}::{} failed: {}", name, localKey, e.getMessage());
+                    refresh.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(localKey, refresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh capacity is exhausted; the stale copy keeps being served until it expires
+            inFlight.remove(localKey, refresh);
+            refresh.completeExceptionally(e);
+        }
+    }
+
+    // Re-reads the shared tier first so a refresh only reaches the backing store when Redis has lost the key too
+    private Object loadThrough(Object key, String localKey, Callable<?> valueLoader) {
+        long generation = generation(localKey);
+        ValueWrapper cached = readRemote(key, localKey, generation);
+        if (cached != null) {
+            return cached.get();
+        }
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long loadNanos = System.nanoTime() - start;
+        latencyListener.load(loadNanos);
+        loads.increment();
+        if (generation(localKey) != generation) {
+            log.debug("Not caching {}::{}, it was written or evicted while loading", name, localKey);
+            return value;
+        }
+        remote.put(key, value);
+        remotePuts.increment();
+        putLocal(localKey, value, loadNanos);
+        if (generation(localKey) != generation) {
+            // A put or evict landed between the check and the writes above; drop both tiers rather
+            // than risk keeping the older value over it
+            remote.evict(key);
+            local.invalidate(localKey);
+        }
+        publish(List.of(localKey));
+        return value;
+    }
+
+    private ValueWrapper readRemote(Object key, String localKey, long generation) {
+        long start = System.nanoTime();
+        ValueWrapper remoteValue = remote.get(key);
+        long readNanos = System.nanoTime() - start;
+        latencyListener.remoteRead(readNanos);
+        if (remoteValue == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        return putLocalIfCurrent(localKey, remoteValue, readNanos, generation);
+    }
+
+    // Only keeps a remote read in the local tier if no write or eviction of the key started since
+    private ValueWrapper putLocalIfCurrent(String localKey, ValueWrapper remoteValue, long loadNanos, long generation) {
+        if (generation(localKey) != generation) {
+            return remoteValue;
+        }
+        LocalEntry entry = putLocal(localKey, remoteValue.get(), loadNanos);
+        if (generation(localKey) != generation) {
+            local.invalidate(localKey);
+        }
+        return entry;
+    }
+
+    private LocalEntry putLocal(String localKey, Object value, long loadNanos) {
+        long freshFor = localTtlNanos;
+        if (maxLocalJitterNanos > 0) {
+            freshFor += ThreadLocalRandom.current().nextLong(maxLocalJitterNanos + 1);
+        }
+        LocalEntry entry = new LocalEntry(value, System.nanoTime() + freshFor, loadNanos);
+        local.put(localKey, entry);
+        localPuts.increment();
+        return entry;
+    }
+
+    // XFetch: refresh when now - loadTime * beta * ln(rand) passes the expiry
+    private boolean shouldRefreshEarly(LocalEntry entry, long now) {
+        if (earlyRefreshBeta <= 0 || entry.loadNanos == 0) {
+            return false;
+        }
+        double gap = -entry.loadNanos * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return now + gap >= entry.freshUntilNanos;
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private long generation(String localKey) {
+        return allKeysGeneration.get() + keyGenerations.get(stripe(localKey));
+    }
+
+    // Called before a write or eviction reaches either tier. Loads started earlier will not store
+    // their value, and new callers no longer join a load started earlier
+    private void startWrite(String localKey) {
+        keyGenerations.incrementAndGet(stripe(localKey));
+        inFlight.remove(localKey);
+    }
+
+    private void startWriteAll() {
+        allKeysGeneration.incrementAndGet();
+        inFlight.clear();
+    }
+
+    private static int stripe(String localKey) {
+        int hash = localKey.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private void publish(List<String> keys) {
+        invalidationPublisher.publish(new CacheInvalidationMessage(nodeId, name, keys));
+    }
+
+    // Remote keys are rendered as strings as well, so both tiers agree on key identity
+    private static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static final class LocalEntry implements ValueWrapper {
+
+        private final Object value;
+        private final long freshUntilNanos;
+        private final long loadNanos;
+
+        private LocalEntry(Object value, long freshUntilNanos, long loadNanos) {
+            this.value = value;
+            this.freshUntilNanos = freshUntilNanos;
+            this.loadNanos = loadNanos;
+        }
+
+        @Override
+        public Object get() {
+            return value;
+        }
+
+        private boolean isFresh(long now) {
+            return now - freshUntilNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.config.ProductCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layers a {@link TwoTierCache} over every cache of the remote {@link CacheManager}.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, DisposableBean {
+
+    private static final int REFRESH_QUEUE_CAPACITY = 1_000;
+
+    private final CacheManager remoteCacheManager;
+    private final ProductCacheProperties properties;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheBatchOperations batchOperations;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager, ProductCacheProperties properties,
+                               CacheInvalidationPublisher invalidationPublisher, CacheBatchOperations batchOperations) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.invalidationPublisher = invalidationPublisher;
+        this.batchOperations = batchOperations;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.getRefreshThreads(), properties.getRefreshThreads(), 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY), new CustomizableThreadFactory("cache-refresh-"));
+        executor.allowCoreThreadTimeOut(true);
+        this.refreshExecutor = executor;
+    }
+
+    @Override
+    public TwoTierCache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<TwoTierCacheStats> getStats() {
+        return caches.values().stream()
+                .map(TwoTierCache::getStats)
+                .toList();
+    }
+
+    /**
+     * Entry point for invalidations arriving over the pub/sub channel.
+     */
+    public void handleInvalidation(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        TwoTierCache cache = caches.get(message.getCacheName());
+        if (cache != null) {
+            log.debug("Invalidating local {} entries {} on behalf of node {}",
+                    message.getCacheName(), message.getKeys(), message.getOrigin());
+            cache.invalidateLocal(message.getKeys());
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return new TwoTierCache(name, remote, properties.getLocal().getMaximumSize(), properties.getSpec(name),
+                invalidationPublisher, nodeId, refreshExecutor, batchOperations);
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.e_com.product.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes a {@link TwoTierCache}'s counters as Micrometer meters. The standard {@code cache.*}
+ * meters describe the cache as a whole (a miss means both tiers missed); per-tier counters and
+ * remote read / load latency timers come on top.
+ */
+public class TwoTierCacheMetrics extends CacheMeterBinder<TwoTierCache> {
+
+    private final TwoTierCache cache;
+
+    public TwoTierCacheMetrics(TwoTierCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.cache = cache;
+    }
+
+    @Override
+    protected Long size() {
+        return cache.getStats().getLocalSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoTierCacheStats stats = cache.getStats();
+        return stats.getLocal().getHits() + stats.getRemote().getHits() + stats.getStaleHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return cache.getStats().getRemote().getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return cache.getStats().getLocal().getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return cache.getStats().getRemote().getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        tierCounter(registry, "local", "hit", stats -> stats.getLocal().getHits());
+        tierCounter(registry, "local", "miss", stats -> stats.getLocal().getMisses());
+        tierCounter(registry, "remote", "hit", stats -> stats.getRemote().getHits());
+        tierCounter(registry, "remote", "miss", stats -> stats.getRemote().getMisses());
+        counter(registry, "cache.loads", "Value loader invocations, i.e. trips to the backing store",
+                TwoTierCacheStats::getLoads);
+        counter(registry, "cache.coalesced.waits", "Callers that waited on another caller's in-flight load",
+                TwoTierCacheStats::getCoalescedWaits);
+        counter(registry, "cache.stale.hits", "Reads answered with a stale copy while a refresh ran",
+                TwoTierCacheStats::getStaleHits);
+        counter(registry, "cache.refreshes", "Background refreshes started",
+                TwoTierCacheStats::getRefreshes);
+        counter(registry, "cache.invalidations.received", "Invalidations applied on behalf of other nodes",
+                TwoTierCacheStats::getInvalidationsReceived);
+        counter(registry, "cache.remote.evictions", "Evictions written to the remote tier",
+                stats -> stats.getRemote().getEvictions());
+
+        Timer remoteReads = Timer.builder("cache.remote.latency")
+                .tags(getTagsWithCacheName())
+                .description("Reads against the remote tier, hits and misses, single and batched")
+                .register(registry);
+        Timer loads = Timer.builder("cache.load.latency")
+                .tags(getTagsWithCacheName())
+                .description("Value loader calls against the backing store")
+                .register(registry);
+        cache.setLatencyListener(new CacheLatencyListener() {
+            @Override
+            public void remoteRead(long nanos) {
+                remoteReads.record(nanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void load(long nanos) {
+                loads.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void tierCounter(MeterRegistry registry, String tier, String result,
+                             ToLongFunction<TwoTierCacheStats> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, c -> count.applyAsLong(c.getStats()))
+                .tags(Tags.of(getTagsWithCacheName()).and("tier", tier, "result", result))
+                .description("Lookups answered (hit) or passed on (miss) by one tier")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToLongFunction<TwoTierCacheStats> count) {
+        FunctionCounter.builder(name, cache, c -> count.applyAsLong(c.getStats()))
+                .tags(getTagsWithCacheName())
+                .description(description)
+                .register(registry);
+    }
+}
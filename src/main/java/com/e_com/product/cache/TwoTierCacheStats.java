@@ -0,0 +1,24 @@
+package com.e_com.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TwoTierCacheStats {
+    private String cacheName;
+    private long localSize;
+    private CacheTierStats local;
+    private CacheTierStats remote;
+    private long invalidationsReceived;
+    // Value loader invocations, i.e. trips to the backing store
+    private long loads;
+    // Callers that waited on another caller's in-flight load instead of loading themselves
+    private long coalescedWaits;
+    // Reads answered with a stale copy while a refresh was running
+    private long staleHits;
+    // Background refreshes started, either stale-while-revalidate or early
+    private long refreshes;
+}
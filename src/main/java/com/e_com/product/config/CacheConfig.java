@@ -1,52 +1,132 @@
 package com.e_com.product.config;
 
+import com.e_com.product.cache.CacheInvalidationMessage;
+import com.e_com.product.cache.CompactValueSerializer;
+import com.e_com.product.cache.JitteredTtl;
+import com.e_com.product.cache.RedisCacheBatchOperations;
+import com.e_com.product.cache.RedisCacheInvalidationPublisher;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.SerializedProduct;
+import com.e_com.product.service.ProductJsonService;
+import com.e_com.product.service.ProductService;
+import com.e_com.product.service.RatingSummaryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.core.RedisTemplate;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
-@EnableCaching
+// Caching wraps the transaction, so @CachePut stores what was committed (with its bumped version)
+// and nothing is cached from a transaction that rolls back
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(ProductCacheProperties.class)
 public class CacheConfig {
 
     @Bean(name = "cacheManager")
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
-        
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            RedisTemplate<String, Object> redisTemplate,
+                                            ProductCacheProperties cacheProperties) {
+        ObjectMapper objectMapper = cacheObjectMapper();
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
         RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(stringRedisSerializer))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
-                .entryTtl(Duration.ofMinutes(10));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        valueSerializer(objectMapper, Object.class, cacheProperties)))
+                .entryTtl(jitteredTtl(new ProductCacheProperties.CacheSpec()));
+
+        // Each configured cache gets its own TTL and jitter on top of the shared serializers
+        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
+        cacheProperties.getSpecs().forEach((cacheName, spec) ->
+                cacheConfigs.put(cacheName, defaultCacheConfig.entryTtl(jitteredTtl(spec))));
+
+        // Read products, response bodies and summaries back as their own types rather than as untyped maps
+        Map<String, Class<?>> valueTypes = Map.of(
+                ProductService.PRODUCTS_CACHE, Product.class,
+                ProductJsonService.PRODUCT_JSON_CACHE, SerializedProduct.class,
+                RatingSummaryService.RATING_SUMMARIES_CACHE, ProductRatingSummary.class);
+        valueTypes.forEach((cacheName, valueType) -> cacheConfigs.put(cacheName,
+                cacheConfigs.getOrDefault(cacheName, defaultCacheConfig)
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                valueSerializer(objectMapper, valueType, cacheProperties)))));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultCacheConfig)
+                .withInitialCacheConfigurations(cacheConfigs)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, cacheProperties,
+                new RedisCacheInvalidationPublisher(redisTemplate, cacheProperties.getInvalidationChannel()),
+                new RedisCacheBatchOperations(connectionFactory));
+    }
+
+    /**
+     * Mapper behind the Redis value serializers, shared with the serialization benchmarks.
+     */
+    public static ObjectMapper cacheObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+
+    /**
+     * Value serializer for one cache. The compact format falls back to reading JSON as
+     * {@code valueType}, so switching between the two does not require flushing Redis.
+     */
+    public static RedisSerializer<?> valueSerializer(ObjectMapper objectMapper, Class<?> valueType,
+                                                     ProductCacheProperties cacheProperties) {
+        if (cacheProperties.getSerializer() == ProductCacheProperties.Serializer.JSON) {
+            return new Jackson2JsonRedisSerializer<>(objectMapper, valueType);
+        }
+        return new CompactValueSerializer(objectMapper, valueType, cacheProperties.getCompressionThreshold());
+    }
+
+    private static JitteredTtl jitteredTtl(ProductCacheProperties.CacheSpec spec) {
+        return new JitteredTtl(spec.getTtl(), spec.getTtlJitter());
+    }
+
+    // Subscribing needs a reachable Redis at startup, so tests switch the listener off
+    @Bean
+    @ConditionalOnProperty(name = "product.cache.invalidation-listener.enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager,
+                                                                            ProductCacheProperties cacheProperties) {
+        MessageListenerAdapter listener = new MessageListenerAdapter(cacheManager, "handleInvalidation");
+        listener.setSerializer(new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class));
+        listener.afterPropertiesSet();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        return container;
     }
 
     @Bean(name = "redisTemplate")
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        ObjectMapper om = new ObjectMapper();
-        om.registerModule(new JavaTimeModule());
-        om.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(om, Object.class);
+        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(cacheObjectMapper(), Object.class);
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
 
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -57,7 +137,7 @@ public class CacheConfig {
 
         template.setHashKeySerializer(stringRedisSerializer);
         template.setHashValueSerializer(serializer);
-        
+
         template.afterPropertiesSet();
         return template;
     }
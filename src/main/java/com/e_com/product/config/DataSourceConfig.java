@@ -0,0 +1,81 @@
+package com.e_com.product.config;
+
+import com.e_com.product.datasource.MySqlReplicaLagProbe;
+import com.e_com.product.datasource.ReadYourWritesTracker;
+import com.e_com.product.datasource.ReplicaDataSourceProperties;
+import com.e_com.product.datasource.ReplicaLagProbe;
+import com.e_com.product.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPA and JDBC use a lazy proxy over {@link ReplicaRoutingDataSource}: read-only transactions go
+ * to a replica from {@code product.datasource.replicas}, everything else to the
+ * {@code spring.datasource} primary.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagProbe replicaLagProbe() {
+        return new MySqlReplicaLagProbe();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaDataSourceProperties replicaProperties,
+                                                             ReplicaLagProbe replicaLagProbe) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaDataSourceProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            replicas.put("replica-" + (i + 1), replicaDataSource("replica-" + (i + 1), configured.get(i),
+                    dataSourceProperties));
+        }
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                replicaLagProbe, replicaProperties.getMaxLag(),
+                new ReadYourWritesTracker(replicaProperties.getReadYourWritesWindow()));
+        // Bring healthy replicas into rotation right away rather than after the first interval
+        routingDataSource.checkReplicas();
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource replicaDataSource(String name, ReplicaDataSourceProperties.Replica replica,
+                                                      DataSourceProperties primary) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        dataSource.setDriverClassName(primary.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        // A replica that is down at startup must not stop the service; it stays out of rotation instead
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
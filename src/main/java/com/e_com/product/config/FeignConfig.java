@@ -1,14 +1,18 @@
 package com.e_com.product.config;
 
+import com.e_com.product.feign.UserServiceCallProperties;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Configuration
+@EnableConfigurationProperties(UserServiceCallProperties.class)
 public class FeignConfig {
 
     @Bean
@@ -16,18 +20,29 @@ public class FeignConfig {
         return new RequestInterceptor() {
             @Override
             public void apply(RequestTemplate template) {
-                ServletRequestAttributes attributes = 
-                        (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                
-                if (attributes != null) {
-                    HttpServletRequest request = attributes.getRequest();
-                    String authHeader = request.getHeader("Authorization");
-                    
-                    if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                        template.header("Authorization", authHeader);
-                    }
+                // Callers that pass the header explicitly (lookups on other threads) already set it
+                if (template.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+                    return;
+                }
+                String authHeader = currentBearerAuthorization();
+                if (authHeader != null) {
+                    template.header(HttpHeaders.AUTHORIZATION, authHeader);
                 }
             }
         };
     }
+
+    /**
+     * The bearer Authorization header of the request bound to this thread, or null.
+     */
+    public static String currentBearerAuthorization() {
+        ServletRequestAttributes attributes =
+                (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader : null;
+    }
 }
@@ -0,0 +1,37 @@
+package com.e_com.product.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Compacted, so the topic holds the latest state of every product rather than a growing history
+    @Bean
+    public NewTopic productChangeTopic(@Value("${product.events.topic:product-change-events}") String topic,
+                                       @Value("${product.events.partitions:6}") int partitions,
+                                       @Value("${product.events.replicas:1}") int replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+
+    // Kept indefinitely by default: the review read model is rebuilt by replaying it from the start
+    @Bean
+    public NewTopic reviewEventsTopic(@Value("${review.events.topic:review-added-events}") String topic,
+                                      @Value("${review.events.partitions:6}") int partitions,
+                                      @Value("${review.events.replicas:1}") int replicas,
+                                      @Value("${review.events.retention-ms:-1}") long retentionMs) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(retentionMs))
+                .build();
+    }
+}
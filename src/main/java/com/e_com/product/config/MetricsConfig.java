@@ -0,0 +1,22 @@
+package com.e_com.product.config;
+
+import com.e_com.product.cache.TwoTierCache;
+import com.e_com.product.cache.TwoTierCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics the actuator cannot derive on its own. HTTP, repository, Mongo command, Feign, Kafka
+ * template, Hikari and circuit breaker meters are auto-configured; their histogram settings live
+ * in application.properties under {@code management.metrics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Lets the actuator's cache metrics registrar bind the two-tier caches like any built-in cache type
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return TwoTierCacheMetrics::new;
+    }
+}
@@ -0,0 +1,80 @@
+package com.e_com.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "product.cache")
+public class ProductCacheProperties {
+
+    private Local local = new Local();
+
+    // Redis pub/sub channel used to keep the in-process tier coherent across nodes
+    private String invalidationChannel = "product-cache-invalidation";
+
+    // Value encoding for the Redis tier; either one can read entries written as JSON
+    private Serializer serializer = Serializer.COMPACT;
+
+    // Compact values at least this many bytes are deflated when that saves space, 0 disables compression
+    private int compressionThreshold = 1024;
+
+    // Threads available for stale-while-revalidate and early refresh loads
+    private int refreshThreads = 4;
+
+    private Warmup warmup = new Warmup();
+
+    // Per cache name overrides; caches without an entry use the CacheSpec defaults
+    private Map<String, CacheSpec> specs = new HashMap<>();
+
+    public CacheSpec getSpec(String cacheName) {
+        return specs.getOrDefault(cacheName, new CacheSpec());
+    }
+
+    public enum Serializer {
+        JSON,
+        COMPACT
+    }
+
+    @Data
+    public static class Local {
+        private long maximumSize = 10_000;
+    }
+
+    @Data
+    public static class Warmup {
+        // Preload the hottest products at startup; the instance reports ready once this finishes
+        private boolean enabled = true;
+        // How many of the hottest product ids to preload
+        private int topN = 5000;
+        // Batch lookups running at once, each one multi-get, IN query and pipelined write
+        private int concurrency = 4;
+        // Readiness is not held back longer than this, whatever is left stays cold
+        private Duration timeout = Duration.ofSeconds(60);
+        // Redis sorted set holding the cluster-wide access ranking
+        private String rankingKey = "product-cache:hot-ids";
+        // How often each node folds its access sketch into the ranking
+        private Duration flushInterval = Duration.ofMinutes(1);
+        // Weight the ranking keeps on every flush, so yesterday's hot products fade out
+        private double decay = 0.9;
+        // Counters per sketch row; more counters mean fewer collisions between cold and hot ids
+        private int sketchWidth = 1 << 16;
+    }
+
+    @Data
+    public static class CacheSpec {
+        // Redis entry lifetime
+        private Duration ttl = Duration.ofMinutes(10);
+        // Up to this fraction of the TTL is added at random so hot keys do not expire together
+        private double ttlJitter = 0.1;
+        // How long an in-process copy is served as fresh; kept well below the Redis TTL
+        private Duration localTtl = Duration.ofSeconds(60);
+        // How long past localTtl a copy may still be served while one background refresh runs
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+        // XFetch beta: higher values refresh earlier before expiry, 0 disables early refresh
+        private double earlyRefreshBeta = 1.0;
+    }
+}
@@ -0,0 +1,160 @@
+package com.e_com.product.controller;
+
+import com.e_com.product.admission.AdmissionControlStats;
+import com.e_com.product.admission.AdmissionController;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.cache.TwoTierCacheStats;
+import com.e_com.product.datasource.ReplicaRoutingDataSource;
+import com.e_com.product.datasource.ReplicaRoutingStats;
+import com.e_com.product.event.OutboxRelayStats;
+import com.e_com.product.event.ProductChangePublisher;
+import com.e_com.product.event.ProductChangePublisherStats;
+import com.e_com.product.event.ProductOutboxRelay;
+import com.e_com.product.event.ReviewEventPublisher;
+import com.e_com.product.event.ReviewEventPublisherStats;
+import com.e_com.product.event.ReviewOutboxRelay;
+import com.e_com.product.feign.HedgingUserServiceClient;
+import com.e_com.product.feign.UserServiceCallStats;
+import com.e_com.product.feign.VerifiedUserCache;
+import com.e_com.product.feign.VerifiedUserCacheStats;
+import com.e_com.product.readmodel.ReviewReadModel;
+import com.e_com.product.readmodel.ReviewReadModelStats;
+import com.e_com.product.service.ProductCacheWarmer;
+import com.e_com.product.service.ProductCacheWarmupStats;
+import com.e_com.product.service.ReviewIngestionPipeline;
+import com.e_com.product.service.ReviewIngestionStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+@Tag(name = "Admin Stats API", description = "Runtime statistics for operators")
+public class AdminStatsController {
+
+    private final TwoTierCacheManager cacheManager;
+    private final VerifiedUserCache verifiedUserCache;
+    private final HedgingUserServiceClient userServiceClient;
+    private final ReviewEventPublisher reviewEventPublisher;
+    private final ObjectProvider<ReviewOutboxRelay> outboxRelay;
+    private final ObjectProvider<ProductOutboxRelay> productOutboxRelay;
+    private final ProductChangePublisher productChangePublisher;
+    private final ObjectProvider<ProductCacheWarmer> cacheWarmer;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final ReviewReadModel reviewReadModel;
+    private final AdmissionController admissionController;
+    private final ObjectProvider<ReviewIngestionPipeline> reviewIngestionPipeline;
+
+    @Operation(summary = "Get cache statistics",
+            description = "Hit, miss, put and eviction counters for the local and Redis cache tiers",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/cache")
+    public ResponseEntity<List<TwoTierCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheManager.getStats());
+    }
+
+    @Operation(summary = "Get verified user cache statistics",
+            description = "Positive and negative hits, misses and invalidations of the user-service lookup cache",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/users")
+    public ResponseEntity<VerifiedUserCacheStats> getVerifiedUserCacheStats() {
+        return ResponseEntity.ok(verifiedUserCache.getStats());
+    }
+
+    @Operation(summary = "Get user-service call statistics",
+            description = "Calls, fallbacks, hedges and latency saved, the adaptive timeout and bulkhead usage",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/user-service")
+    public ResponseEntity<UserServiceCallStats> getUserServiceCallStats() {
+        return ResponseEntity.ok(userServiceClient.getStats());
+    }
+
+    @Operation(summary = "Get review event publishing statistics",
+            description = "Sent, acknowledged and failed review events and broker ack latency",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/review-events")
+    public ResponseEntity<ReviewEventPublisherStats> getReviewEventStats() {
+        return ResponseEntity.ok(reviewEventPublisher.getStats());
+    }
+
+    @Operation(summary = "Get review outbox relay statistics",
+            description = "Relay lease ownership and relayed entries on this node",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/outbox")
+    public ResponseEntity<OutboxRelayStats> getOutboxRelayStats() {
+        ReviewOutboxRelay relay = outboxRelay.getIfAvailable();
+        return relay == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(relay.getStats());
+    }
+
+    @Operation(summary = "Get product change publishing statistics",
+            description = "Product changes and tombstones acknowledged by the broker, and failed sends to be retried",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/product-events")
+    public ResponseEntity<ProductChangePublisherStats> getProductChangeStats() {
+        return ResponseEntity.ok(productChangePublisher.getStats());
+    }
+
+    @Operation(summary = "Get product outbox relay statistics",
+            description = "Relay lease ownership and relayed product changes on this node",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/product-outbox")
+    public ResponseEntity<OutboxRelayStats> getProductOutboxRelayStats() {
+        ProductOutboxRelay relay = productOutboxRelay.getIfAvailable();
+        return relay == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(relay.getStats());
+    }
+
+    @Operation(summary = "Get product cache warm-up statistics",
+            description = "Hot products requested and cached by the startup warm-up, and whether it timed out",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/cache-warmup")
+    public ResponseEntity<ProductCacheWarmupStats> getCacheWarmupStats() {
+        ProductCacheWarmer warmer = cacheWarmer.getIfAvailable();
+        ProductCacheWarmupStats stats = warmer != null ? warmer.getStats() : null;
+        return stats == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(stats);
+    }
+
+    @Operation(summary = "Get read replica routing statistics",
+            description = "Replica health, lag and reads, and reads kept on the primary",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/datasource")
+    public ResponseEntity<ReplicaRoutingStats> getReplicaRoutingStats() {
+        return ResponseEntity.ok(replicaRoutingDataSource.getStats());
+    }
+
+    @Operation(summary = "Get review read model statistics",
+            description = "Products and reviews held, events applied and skipped, and reads served or passed to Mongo",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/review-read-model")
+    public ResponseEntity<ReviewReadModelStats> getReviewReadModelStats() {
+        return ResponseEntity.ok(reviewReadModel.getStats());
+    }
+
+    @Operation(summary = "Get admission control statistics",
+            description = "Concurrency limit, requests in flight, and accepted, rejected and failed requests "
+                    + "per endpoint group and caller class",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/admission")
+    public ResponseEntity<List<AdmissionControlStats>> getAdmissionControlStats() {
+        return ResponseEntity.ok(admissionController.getStats());
+    }
+
+    @Operation(summary = "Get review ingestion statistics",
+            description = "Queue depth, batch sizes and flush latency of the group-commit review pipeline",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/review-ingestion")
+    public ResponseEntity<ReviewIngestionStats> getReviewIngestionStats() {
+        ReviewIngestionPipeline pipeline = reviewIngestionPipeline.getIfAvailable();
+        return pipeline == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(pipeline.getStats());
+    }
+}
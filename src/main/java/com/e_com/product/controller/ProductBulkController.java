@@ -0,0 +1,100 @@
+package com.e_com.product.controller;
+
+import com.e_com.product.bulk.BulkFormat;
+import com.e_com.product.bulk.ProductBulkService;
+import com.e_com.product.bulk.ProductImportStatus;
+import com.e_com.product.model.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Tag(name = "Product Bulk API", description = "Bulk product import and export")
+public class ProductBulkController {
+
+    private final ProductBulkService productBulkService;
+
+    @Operation(summary = "Import Products",
+            description = "Queue a CSV (with header) or NDJSON file of products for import. The format is taken " +
+                    "from the format parameter, else from the Content-Type. Names that already exist are skipped. " +
+                    "Poll the returned job for progress")
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> importProducts(InputStream body,
+                                            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                            @RequestParam(required = false) String format,
+                                            @RequestParam(defaultValue = "false") boolean warmCache) throws IOException {
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = format == null && contentType != null && contentType.startsWith("text/csv")
+                    ? BulkFormat.CSV
+                    : BulkFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        }
+        ProductImportStatus status = productBulkService.startImport(body, bulkFormat, warmCache);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/products/import/" + status.getJobId()))
+                .body(status);
+    }
+
+    @Operation(summary = "Get Import Status", description = "Progress and counts of an import job")
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ProductImportStatus> getImportStatus(@PathVariable String jobId) {
+        return productBulkService.getImportStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Get Import Errors",
+            description = "CSV of the input lines a finished import rejected or skipped, with the reason")
+    @GetMapping(value = "/import/{jobId}/errors", produces = "text/csv")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> getImportErrors(@PathVariable String jobId) {
+        return productBulkService.findErrorReport(jobId)
+                .map(report -> ResponseEntity.ok()
+                        .contentType(BulkFormat.CSV.getMediaType())
+                        .body((StreamingResponseBody) outputStream -> Files.copy(report, outputStream)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Export Products", description = "Stream every product as CSV or NDJSON, in ID order")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        BulkFormat bulkFormat;
+        try {
+            bulkFormat = BulkFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        }
+        StreamingResponseBody body = outputStream -> productBulkService.export(bulkFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(bulkFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + bulkFormat.name().toLowerCase(Locale.ROOT))
+                        .build().toString())
+                .body(body);
+    }
+}
@@ -1,16 +1,37 @@
 package com.e_com.product.controller;
 
+import com.e_com.product.event.ProductChangePublisher;
+import com.e_com.product.model.CursorPage;
 import com.e_com.product.model.ErrorResponse;
 import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductLookupResult;
+import com.e_com.product.model.ProductSearchResponse;
+import com.e_com.product.search.ProductSearchService;
+import com.e_com.product.service.ProductAccessTracker;
+import com.e_com.product.service.ProductJsonService;
 import com.e_com.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
@@ -18,44 +39,180 @@ import java.util.List;
 @Tag(name = "Product API", description = "Product Management API")
 public class ProductController {
 
+    private static final String CHANGE_OFFSETS_HEADER = "X-Product-Events-Offsets";
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
     private final ProductService productService;
+    private final ProductJsonService productJsonService;
+    private final ProductAccessTracker accessTracker;
+    private final ProductSearchService productSearchService;
+    private final ProductChangePublisher productChangePublisher;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Get All Products", description = "Retrieve a list of all products")
+    @Operation(summary = "Get Products", description = "Retrieve a page of products ordered by ID. " +
+            "Pass the returned nextCursor back as cursor to fetch the following page")
     @GetMapping()
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getProducts(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Product> page = productService.getProductsPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Stream All Products", description = "Stream every product as newline-delimited JSON")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = outputStream ->
+                productService.streamAllProducts(product -> writeNdjsonLine(outputStream, product));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Product Change Snapshot",
+            description = "Bootstrap for consumers of the product change topic: every product as newline-delimited " +
+                    "JSON, plus the topic's end offsets read before the snapshot in the " + CHANGE_OFFSETS_HEADER +
+                    " header (partition=offset,...). Load the snapshot, then consume from those offsets, " +
+                    "skipping changes whose version is not newer than the one held")
+    @GetMapping(value = "/changes/snapshot", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> getChangeSnapshot() {
+        Map<Integer, Long> endOffsets;
+        try {
+            endOffsets = productChangePublisher.endOffsets();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(new ErrorResponse("SERVICE_UNAVAILABLE", e.getMessage()));
+        }
+        String offsets = endOffsets.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+        StreamingResponseBody body = outputStream ->
+                productService.streamAllProducts(product -> writeNdjsonLine(outputStream, product));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(CHANGE_OFFSETS_HEADER, offsets)
+                .body(body);
+    }
+
+    @Operation(summary = "Search Products",
+            description = "Full-text search over product names and descriptions, ranked by relevance, " +
+                    "with optional category and price filters and per-category facet counts")
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(@RequestParam(name = "q", required = false) String query,
+                                            @RequestParam(required = false) String category,
+                                            @RequestParam(required = false) Double minPrice,
+                                            @RequestParam(required = false) Double maxPrice,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size) {
+        try {
+            ProductSearchResponse response =
+                    productSearchService.search(query, category, minPrice, maxPrice, page, size);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(new ErrorResponse("SERVICE_UNAVAILABLE", e.getMessage()));
+        }
     }
 
-    @Operation(summary = "Get Product by ID", description = "Retrieve a product by its ID")
-    @GetMapping("/{productId}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long productId) {
-        return productService.getProductById(productId)
-                .map(ResponseEntity::ok)
+    @Operation(summary = "Get Product by ID", description = "Retrieve a product by its ID",
+            responses = @ApiResponse(responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = Product.class))))
+    @GetMapping(value = "/{productId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long productId,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                 String acceptEncoding,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
+        // The body comes from the cache already encoded and is copied to the response as it is.
+        // A revalidation is served from the cache too, so it does not touch the database
+        return productJsonService.getSerializedProduct(productId)
+                .map(serialized -> {
+                    // Only ids that exist enter the hot ranking
+                    accessTracker.recordAccess(productId);
+                    // Each encoding is its own representation and gets its own strong ETag
+                    boolean gzip = serialized.getGzip() != null && acceptsGzip(acceptEncoding);
+                    String eTag = gzip ? gzipETag(serialized.getVersion()) : eTag(serialized.getVersion());
+                    // Either encoding's ETag proves the client holds the current version
+                    if (ifNoneMatch != null && matchesVersion(ifNoneMatch, serialized.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(eTag)
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                                .<byte[]>build();
+                    }
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .eTag(eTag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    if (gzip) {
+                        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serialized.getGzip());
+                    }
+                    return response.body(serialized.getJson());
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Get Products by IDs",
+            description = "Retrieve several products in one call. Results keep the request order and " +
+                    "unknown IDs are returned with found=false")
+    @PostMapping("/batch")
+    public ResponseEntity<?> getProductsByIds(@RequestBody List<Long> productIds) {
+        return lookupProducts(productIds);
+    }
+
+    @Operation(summary = "Get Products by IDs (query)", description = "Same as POST /batch with ids=1,2,3")
+    @GetMapping("/batch")
+    public ResponseEntity<?> getProductsByIdsQuery(@RequestParam("ids") List<Long> productIds) {
+        return lookupProducts(productIds);
+    }
+
     @Operation(summary = "Create Product", description = "Create a new product")
     @PostMapping()
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<?> createProduct(@RequestBody Product product) {
         try {
             Product createdProduct = productService.createProduct(product);
-            return ResponseEntity.status(201).body(createdProduct);
+            return ResponseEntity.status(201).eTag(eTag(createdProduct)).body(createdProduct);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(409).body(new ErrorResponse("CONFLICT", e.getMessage()));
         }
     }
 
-    @Operation(summary = "Update Product", description = "Update an existing product")
+    @Operation(summary = "Update Product",
+            description = "Update an existing product. Send the ETag from GET as If-Match to reject the " +
+                    "update with 412 when someone else changed the product in the meantime")
     @PutMapping("/{productId}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<?> updateProduct(@PathVariable Long productId, @RequestBody Product product) {
+    public ResponseEntity<?> updateProduct(@PathVariable Long productId, @RequestBody Product product,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+        boolean anyVersion = ifMatch != null && ifMatch.trim().equals("*");
         try {
-            Product updatedProduct = productService.updateProduct(productId, product);
-            return ResponseEntity.ok(updatedProduct);
+            Product updatedProduct;
+            if (ifMatch == null || anyVersion) {
+                updatedProduct = productService.updateProduct(productId, product);
+            } else {
+                Long expectedVersion = parseVersion(ifMatch);
+                if (expectedVersion == null) {
+                    return ResponseEntity.status(412).body(new ErrorResponse("PRECONDITION_FAILED",
+                            "If-Match must be a strong ETag returned by this API"));
+                }
+                updatedProduct = productService.updateProduct(productId, expectedVersion, product);
+            }
+            return ResponseEntity.ok().eTag(eTag(updatedProduct)).body(updatedProduct);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(404).body(new ErrorResponse("NOT_FOUND", e.getMessage()));
+            // If-Match: * only matches a product that exists, so a missing one fails the precondition
+            return anyVersion
+                    ? ResponseEntity.status(412).body(new ErrorResponse("PRECONDITION_FAILED", e.getMessage()))
+                    : ResponseEntity.status(404).body(new ErrorResponse("NOT_FOUND", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            // With If-Match the client named a version that is no longer current; without it the
+            // row changed between our read and write
+            return ifMatch != null
+                    ? ResponseEntity.status(412).body(new ErrorResponse("PRECONDITION_FAILED", e.getMessage()))
+                    : ResponseEntity.status(409).body(new ErrorResponse("CONFLICT", e.getMessage()));
         }
     }
 
@@ -66,4 +223,84 @@ public class ProductController {
         productService.deleteProduct(productId);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<?> lookupProducts(List<Long> productIds) {
+        try {
+            List<ProductLookupResult> results = productService.getProductsByIds(productIds);
+            accessTracker.recordAccess(results.stream()
+                    .filter(ProductLookupResult::isFound)
+                    .map(ProductLookupResult::getId)
+                    .toList());
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        }
+    }
+
+    private static String eTag(Product product) {
+        return eTag(product.getVersion());
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String gzipETag(long version) {
+        return "\"" + version + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // gzip;q=0 explicitly refuses it
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match uses weak comparison, so W/ prefixes are ignored
+    private static boolean matchesVersion(String ifNoneMatch, long version) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            Long tagVersion = parseVersion(value.startsWith("W/") ? value.substring(2) : value);
+            if (tagVersion != null && tagVersion == version) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Accepts the strong ETags we hand out ("3" or "3-gzip"); anything else cannot match a current version
+    private static Long parseVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return null;
+        }
+        String version = value.substring(1, value.length() - 1);
+        if (version.endsWith(GZIP_ETAG_SUFFIX)) {
+            version = version.substring(0, version.length() - GZIP_ETAG_SUFFIX.length());
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void writeNdjsonLine(OutputStream outputStream, Product product) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(product));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,12 +1,19 @@
 package com.e_com.product.controller;
 
+import com.e_com.product.event.ReviewOutbox;
+import com.e_com.product.model.CursorPage;
 import com.e_com.product.model.ErrorResponse;
+import com.e_com.product.model.ProductRatingSummary;
 import com.e_com.product.model.Review;
+import com.e_com.product.readmodel.ReviewReadModel;
+import com.e_com.product.service.RatingSummaryService;
 import com.e_com.product.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +21,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/reviews")
@@ -25,12 +37,80 @@ import java.util.List;
 public class ReiewController {
 
     private final ReviewService reviewService;
+    private final RatingSummaryService ratingSummaryService;
+    private final ReviewOutbox reviewOutbox;
+    private final ReviewReadModel reviewReadModel;
 
-    @Operation(summary = "Get reviews by product ID", description = "Retrieve all reviews for a specific product")
+    @Operation(summary = "Get reviews by product ID",
+            description = "Retrieve one page of reviews for a product, sorted by newest or by rating. " +
+                    "Pass the returned nextCursor back to fetch the following page")
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<Review>> getReviewsByProductId(@PathVariable Long productId) {
-        List<Review> reviews = reviewService.getReviewsByProductId(productId);
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<?> getReviewsByProductId(@PathVariable Long productId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestParam(defaultValue = "newest") String sort) {
+        try {
+            CursorPage<Review> page = reviewService.getReviewsByProductId(productId, cursor, size, sort);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Get reviews by user ID",
+            description = "Retrieve one page of reviews written by a user, sorted by newest or by rating",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getReviewsByUserId(@PathVariable Long userId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(defaultValue = "newest") String sort) {
+        try {
+            CursorPage<Review> page = reviewService.getReviewsByUserId(userId, cursor, size, sort);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Get rating summary by product ID",
+            description = "Review count, rating sum, average and 1-5 star histogram for a product")
+    @GetMapping("/product/{productId}/summary")
+    public ResponseEntity<ProductRatingSummary> getRatingSummary(@PathVariable Long productId) {
+        return ResponseEntity.ok(reviewReadModel.findSummary(productId)
+                .orElseGet(() -> ratingSummaryService.getSummary(productId)));
+    }
+
+    @Operation(summary = "Rebuild rating summaries",
+            description = "Repair: recompute every product's rating summary from the stored reviews and drop " +
+                    "summaries of products without reviews; reviews added while it runs can be lost from the counts",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/summaries/rebuild")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Long>> rebuildRatingSummaries() {
+        long summaries = ratingSummaryService.rebuildSummaries();
+        return ResponseEntity.ok(Map.of("summaries", summaries));
+    }
+
+    @Operation(summary = "Rebuild the review read model",
+            description = "Clear this node's in-memory review views and replay review events from the start " +
+                    "of the topic; reads fall back to Mongo until the replay catches up",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/read-model/rebuild")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Void> rebuildReadModel() {
+        reviewReadModel.rebuild();
+        return ResponseEntity.accepted().build();
+    }
+
+    @Operation(summary = "Replay review events",
+            description = "Queue review events created at or after the given time to be sent to Kafka again",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/outbox/replay")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Map<String, Long>> replayReviewEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return ResponseEntity.ok(Map.of("replayed", reviewOutbox.replay(from)));
     }
 
     @Operation(summary = "Add a new review",
@@ -38,12 +118,30 @@ public class ReiewController {
             security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN')")
-    public ResponseEntity<?> addReview(@RequestBody Review review) {
+    public CompletableFuture<ResponseEntity<?>> addReview(@RequestBody Review review) {
+        Integer rating = review.getRating();
+        if (rating == null || rating < ProductRatingSummary.MIN_RATING || rating > ProductRatingSummary.MAX_RATING) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(new ErrorResponse("BAD_REQUEST",
+                    "Rating must be between " + ProductRatingSummary.MIN_RATING + " and " + ProductRatingSummary.MAX_RATING)));
+        }
         try {
-            Review createdReview = reviewService.addReview(review);
-            return ResponseEntity.ok(createdReview);
+            // With review ingestion batching on, the response waits for the review's batch to commit
+            return reviewService.addReviewAsync(review)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(ReiewController::ingestionFailure);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(404).body(new ErrorResponse("NOT_FOUND", e.getMessage()));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(404).body(new ErrorResponse("NOT_FOUND", e.getMessage())));
+        }
+    }
+
+    private static ResponseEntity<?> ingestionFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse("SERVICE_UNAVAILABLE", cause.getMessage()));
         }
+        throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
     }
 }
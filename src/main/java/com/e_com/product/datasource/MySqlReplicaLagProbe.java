@@ -0,0 +1,24 @@
+package com.e_com.product.datasource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reads {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS} (MySQL 8.0.22+). The column
+ * is null while replication is stopped and the result is empty on a server that is not a
+ * replica; both count as unknown lag.
+ */
+public class MySqlReplicaLagProbe implements ReplicaLagProbe {
+
+    @Override
+    public Duration lag(DataSource replica) {
+        List<Long> seconds = new JdbcTemplate(replica).query("SHOW REPLICA STATUS", (rs, rowNum) -> {
+            long value = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : value;
+        });
+        return seconds.isEmpty() || seconds.get(0) == null ? null : Duration.ofSeconds(seconds.get(0));
+    }
+}
@@ -0,0 +1,34 @@
+package com.e_com.product.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "product.datasource")
+public class ReplicaDataSourceProperties {
+
+    // Read replicas of spring.datasource; with none configured every transaction uses the primary
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind than this, or whose lag cannot be read, get no reads until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // How often replica lag is probed
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    // After a caller opens a read-write transaction, their reads stay on the primary for this long
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        // Username and password default to the primary's
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+    }
+}
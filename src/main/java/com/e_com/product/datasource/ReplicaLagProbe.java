@@ -0,0 +1,16 @@
+package com.e_com.product.datasource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Measures how far a replica trails the primary.
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * @return the replica's lag, or null when it is unknown (replication stopped or not set up)
+     */
+    Duration lag(DataSource replica);
+}
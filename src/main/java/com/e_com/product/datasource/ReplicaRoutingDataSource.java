@@ -0,0 +1,221 @@
+package com.e_com.product.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy read replica, round robin, and everything else to
+ * the primary.
+ * <p>
+ * A replica is healthy while its last probed lag is within {@code maxLag}; one whose lag is
+ * unknown or which refused a connection gets no reads until the next probe clears it. With no
+ * healthy replica, or when the caller wrote within the read-your-writes window, reads go to the
+ * primary, as do reads wrapped in {@link #onPrimary}. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * JPA takes its connection before the transaction's read-only flag is published, and the proxy
+ * defers that until the first statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaLagProbe lagProbe;
+    private final Duration maxLag;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReplicaLagProbe lagProbe,
+                                    Duration maxLag, ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.lagProbe = lagProbe;
+        this.maxLag = maxLag;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    // Called by Spring once the bean is constructed; resolves the primary and replica targets
+    @Override
+    public void afterPropertiesSet() {
+        Map<Object, Object> targets = new HashMap<>();
+        replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.recordWrite();
+            return PRIMARY;
+        }
+        if (PINNED_TO_PRIMARY.get() != null) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.wroteRecently()) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        if (replica == null) {
+            fallbackReads.increment();
+            return PRIMARY;
+        }
+        return replica.name;
+    }
+
+    /**
+     * Runs reads on the primary even in read-only transactions, without counting as a write for
+     * read-your-writes. Meant for reads whose result outlives the request, such as cache fills
+     * and exports, where a lagging replica's answer would stick around. Only transactions that
+     * take their connection inside {@code reads} are pinned.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return reads.get();
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource target = getResolvedDataSources().get(key);
+        if (PRIMARY.equals(key)) {
+            return target.getConnection();
+        }
+        Replica replica = replica(key);
+        try {
+            Connection connection = target.getConnection();
+            replica.reads.increment();
+            return connection;
+        } catch (SQLException e) {
+            // Take the replica out of rotation until the next lag probe and serve this read from the primary
+            log.warn("Replica {} refused a connection, reading from the primary: {}", replica.name, e.getMessage());
+            replica.healthy = false;
+            replica.connectionFailures.increment();
+            fallbackReads.increment();
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replica credentials come from configuration, so explicit credentials always mean the primary
+        return getResolvedDefaultDataSource().getConnection(username, password);
+    }
+
+    /**
+     * Probes every replica's lag and updates which ones take reads.
+     */
+    @Scheduled(fixedDelayString = "${product.datasource.lag-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            Duration lag;
+            try {
+                lag = lagProbe.lag(replica.dataSource);
+            } catch (RuntimeException e) {
+                log.warn("Could not read the lag of replica {}: {}", replica.name, e.getMessage());
+                lag = null;
+            }
+            boolean healthy = lag != null && lag.compareTo(maxLag) <= 0;
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {} (lag {})", replica.name, healthy ? "in rotation" : "out of rotation",
+                        lag != null ? lag : "unknown");
+            }
+            replica.lagMillis = lag != null ? lag.toMillis() : -1;
+            replica.healthy = healthy;
+        }
+    }
+
+    public ReplicaRoutingStats getStats() {
+        List<ReplicaRoutingStats.ReplicaStats> replicaStats = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            replicaStats.add(new ReplicaRoutingStats.ReplicaStats(replica.name, replica.healthy, replica.lagMillis,
+                    replica.reads.sum(), replica.connectionFailures.sum()));
+        }
+        return new ReplicaRoutingStats(stickyReads.sum(), pinnedReads.sum(), fallbackReads.sum(), replicaStats);
+    }
+
+    // The primary is a bean of its own; the replica pools belong to this data source
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica replica(Object key) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(key)) {
+                return replica;
+            }
+        }
+        throw new IllegalStateException("Unknown replica " + key);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // Replicas start out of rotation and join once a probe has seen them caught up
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder connectionFailures = new LongAdder();
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
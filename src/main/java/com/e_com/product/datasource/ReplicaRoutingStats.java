@@ -0,0 +1,32 @@
+package com.e_com.product.datasource;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaRoutingStats {
+    // Read-only transactions sent to the primary because the caller wrote recently
+    private long stickyReads;
+    // Read-only transactions sent to the primary because their caller asked for it (cache fills, exports)
+    private long pinnedReads;
+    // Read-only transactions sent to the primary because no replica was usable
+    private long fallbackReads;
+    private List<ReplicaStats> replicas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReplicaStats {
+        private String name;
+        private boolean healthy;
+        // Last measured lag, -1 when unknown
+        private long lagMillis;
+        private long reads;
+        private long connectionFailures;
+    }
+}
@@ -0,0 +1,81 @@
+package com.e_com.product.event;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Lease letting one node at a time relay an outbox: a document in {@code outbox_leases} naming
+ * its owner and when it expires. The owner renews it on every poll; another node takes it over
+ * once it has expired.
+ */
+final class OutboxLease {
+
+    private static final String COLLECTION = "outbox_leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final String leaseId;
+    private final Duration ttl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // System.nanoTime() at which the lease held by this node runs out, measured from before the
+    // write that took or renewed it
+    private volatile long expiresAt;
+
+    OutboxLease(MongoTemplate mongoTemplate, String leaseId, Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseId = leaseId;
+        this.ttl = ttl;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    long expiresAt() {
+        return expiresAt;
+    }
+
+    // Takes the lease if it is free or expired, or renews it if this node already holds it
+    boolean acquire() {
+        long startedAt = System.nanoTime();
+        Date now = new Date();
+        Query query = Query.query(Criteria.where("_id").is(leaseId)
+                .orOperator(Criteria.where("owner").is(nodeId), Criteria.where("expiresAt").lt(now)));
+        try {
+            UpdateResult result = mongoTemplate.upsert(query, update(now), COLLECTION);
+            return written(startedAt, result.getMatchedCount() > 0 || result.getUpsertedId() != null);
+        } catch (DuplicateKeyException e) {
+            // The lease document exists and is held by another node
+            return false;
+        }
+    }
+
+    // Renews the lease only while this node still owns it, never taking it over
+    boolean renew() {
+        long startedAt = System.nanoTime();
+        Query query = Query.query(Criteria.where("_id").is(leaseId).and("owner").is(nodeId));
+        UpdateResult result = mongoTemplate.updateFirst(query, update(new Date()), COLLECTION);
+        return written(startedAt, result.getMatchedCount() > 0);
+    }
+
+    private Update update(Date now) {
+        return new Update()
+                .set("owner", nodeId)
+                .set("expiresAt", new Date(now.getTime() + ttl.toMillis()));
+    }
+
+    private boolean written(long startedAt, boolean written) {
+        if (written) {
+            expiresAt = startedAt + ttl.toNanos();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,18 @@
+package com.e_com.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayStats {
+    private String nodeId;
+    // Whether this node held the relay lease on its last poll
+    private boolean leader;
+    private long relayed;
+    // Batches cut short by a failed send; the remainder is retried on the next poll
+    private long interruptedBatches;
+    private int lastBatchSize;
+}
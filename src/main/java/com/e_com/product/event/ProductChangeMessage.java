@@ -0,0 +1,23 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Value of a record on the product change topic. Deletions are not messages but tombstones
+ * (a null value under the product id), so compaction can eventually drop deleted products.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeMessage {
+
+    // CREATED or UPDATED
+    private ProductChangedEvent.ChangeType type;
+    private Long productId;
+    // Apply only if newer than the version already held; replays and snapshot overlap repeat versions
+    private long version;
+    private Product product;
+}
@@ -0,0 +1,103 @@
+package com.e_com.product.event;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends product changes to the compacted product change topic, keyed by product id so a
+ * product's changes stay in order on one partition and compaction keeps its latest state.
+ * <p>
+ * Changes reach it through {@link ProductOutbox} and {@link ProductOutboxRelay}, which keeps an
+ * entry until its send, tombstones included, was acknowledged. New consumers bootstrap from a
+ * product snapshot plus the topic tail after {@link #endOffsets()} instead of replaying history.
+ */
+@Component
+public class ProductChangePublisher {
+
+    private static final long OFFSETS_TIMEOUT_SECONDS = 10;
+
+    private final KafkaTemplate<String, ProductChangeMessage> kafkaTemplate;
+    private final KafkaAdmin kafkaAdmin;
+    private final String topic;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder tombstones = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ProductChangePublisher(KafkaTemplate<String, ProductChangeMessage> kafkaTemplate,
+                                  KafkaAdmin kafkaAdmin,
+                                  @Value("${product.events.topic:product-change-events}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaAdmin = kafkaAdmin;
+        this.topic = topic;
+    }
+
+    /**
+     * Sends the product's current state, or a tombstone when {@code message} is null, completing
+     * once the broker acknowledged it or exceptionally if the send failed after the producer's
+     * own retries.
+     */
+    public CompletableFuture<Void> publish(Long productId, ProductChangeMessage message) {
+        try {
+            return kafkaTemplate.send(topic, String.valueOf(productId), message).handle((result, failure) -> {
+                if (failure != null) {
+                    failed.increment();
+                    throw failure instanceof RuntimeException runtime ? runtime : new IllegalStateException(failure);
+                }
+                (message == null ? tombstones : published).increment();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Raised before the record reached the producer, e.g. metadata unavailable within max.block.ms
+            failed.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Current end offset of each partition of the change topic. Read before a snapshot, these are
+     * where a consumer loading that snapshot starts consuming: every change the snapshot may have
+     * missed is at or after them.
+     */
+    public Map<Integer, Long> endOffsets() {
+        try (AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            TopicDescription description = adminClient.describeTopics(List.of(topic))
+                    .allTopicNames().get(OFFSETS_TIMEOUT_SECONDS, TimeUnit.SECONDS).get(topic);
+            Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+            description.partitions().forEach(partition ->
+                    request.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> offsets =
+                    adminClient.listOffsets(request).all().get(OFFSETS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            Map<Integer, Long> endOffsets = new TreeMap<>();
+            offsets.forEach((partition, info) -> endOffsets.put(partition.partition(), info.offset()));
+            return endOffsets;
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not read the end offsets of " + topic, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the end offsets of " + topic, e);
+        }
+    }
+
+    public ProductChangePublisherStats getStats() {
+        return new ProductChangePublisherStats(published.sum(), tombstones.sum(), failed.sum());
+    }
+}
@@ -0,0 +1,15 @@
+package com.e_com.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangePublisherStats {
+    private long published;
+    private long tombstones;
+    // Sends the broker did not acknowledge; the outbox relay sends them again
+    private long failed;
+}
@@ -0,0 +1,25 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * In-process notification that a product was written, published by {@code ProductService}
+ * after the change is stored so derived views can follow it incrementally.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private ChangeType type;
+    private Long productId;
+    // Current state of the product, null for deletions
+    private Product product;
+}
@@ -0,0 +1,99 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.ProductOutboxEntry;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records every {@link ProductChangedEvent} in {@code product_outbox} within the transaction that
+ * wrote the product, so an entry exists exactly when the change was committed, and
+ * {@link ProductOutboxRelay} sends it on until the broker acknowledges it.
+ * <p>
+ * The changes of one transaction are collected and inserted as one JDBC batch just before it
+ * commits, so a bulk import chunk costs one more statement, not one per product. A failed insert
+ * rolls the product write back with it. Changes made outside a transaction are recorded at once.
+ */
+@Component
+public class ProductOutbox {
+
+    private static final String INSERT_SQL =
+            "insert into product_outbox (product_id, type, created_at) values (?, ?, ?)";
+
+    private static final RowMapper<ProductOutboxEntry> ENTRY_MAPPER = (rs, rowNum) -> new ProductOutboxEntry(
+            rs.getLong("id"),
+            rs.getLong("product_id"),
+            ProductChangedEvent.ChangeType.valueOf(rs.getString("type")),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public ProductOutbox(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            insertAll(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<ProductChangedEvent> pending = (List<ProductChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<ProductChangedEvent> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insertAll(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductOutbox.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * The oldest entries not relayed yet, in id order.
+     */
+    public List<ProductOutboxEntry> findPending(int limit) {
+        return jdbcTemplate.query("select id, product_id, type, created_at from product_outbox order by id limit ?",
+                ENTRY_MAPPER, limit);
+    }
+
+    public void deleteAll(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            namedParameterJdbcTemplate.update("delete from product_outbox where id in (:ids)", Map.of("ids", ids));
+        }
+    }
+
+    private void insertAll(List<ProductChangedEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getProductId());
+            ps.setString(2, change.getType().name());
+            ps.setTimestamp(3, createdAt);
+        });
+    }
+}
@@ -0,0 +1,168 @@
+package com.e_com.product.event;
+
+import com.e_com.product.datasource.ReplicaRoutingDataSource;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductOutboxEntry;
+import com.e_com.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the product outbox to the product change topic in id order.
+ * <p>
+ * An entry only names the product that changed, so each batch loads the products it names from
+ * the primary and sends them as they are now, or a tombstone for a product that no longer
+ * exists. An entry relayed late or twice therefore only repeats the latest state, which is all
+ * compaction keeps anyway. Entries are deleted only up to the first failed send, so a lost
+ * change or tombstone is sent again on the next poll.
+ * <p>
+ * Like {@link ReviewOutboxRelay}, only the node holding the relay lease relays, a batch is only
+ * started while its sends can finish before the lease runs out, and its deletes are fenced by
+ * renewing the lease first.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.outbox.relay.enabled", matchIfMissing = true)
+public class ProductOutboxRelay {
+
+    private static final String LEASE_ID = "product-outbox-relay";
+
+    private final ProductOutbox productOutbox;
+    private final ProductRepository productRepository;
+    private final ProductChangePublisher productChangePublisher;
+    private final int batchSize;
+    private final Duration leaseTtl;
+    private final Duration sendTimeout;
+    private final OutboxLease lease;
+
+    private volatile boolean leader;
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder interruptedBatches = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+
+    public ProductOutboxRelay(ProductOutbox productOutbox,
+                              ProductRepository productRepository,
+                              ProductChangePublisher productChangePublisher,
+                              MongoTemplate mongoTemplate,
+                              @Value("${product.outbox.batch-size:500}") int batchSize,
+                              @Value("${product.outbox.lease-ttl:15s}") Duration leaseTtl,
+                              @Value("${product.outbox.send-timeout:10s}") Duration sendTimeout) {
+        if (sendTimeout.compareTo(leaseTtl) >= 0) {
+            throw new IllegalArgumentException("product.outbox.send-timeout must be shorter than product.outbox.lease-ttl");
+        }
+        this.productOutbox = productOutbox;
+        this.productRepository = productRepository;
+        this.productChangePublisher = productChangePublisher;
+        this.batchSize = batchSize;
+        this.leaseTtl = leaseTtl;
+        this.sendTimeout = sendTimeout;
+        this.lease = new OutboxLease(mongoTemplate, LEASE_ID, leaseTtl);
+    }
+
+    /**
+     * Relays full batches back to back while the outbox has a backlog, giving up the turn after
+     * half the lease.
+     */
+    @Scheduled(fixedDelayString = "${product.outbox.poll-interval:500ms}")
+    public void relay() {
+        long turnDeadline = System.nanoTime() + leaseTtl.toNanos() / 2;
+        try {
+            leader = lease.acquire();
+            if (!leader) {
+                return;
+            }
+            int relayedInBatch;
+            do {
+                relayedInBatch = relayBatch();
+            } while (relayedInBatch == batchSize && leader && canStartBatch(turnDeadline));
+        } catch (RuntimeException e) {
+            log.warn("Product outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    public OutboxRelayStats getStats() {
+        return new OutboxRelayStats(lease.nodeId(), leader, relayed.sum(), interruptedBatches.sum(), lastBatchSize.get());
+    }
+
+    int relayBatch() {
+        List<ProductOutboxEntry> batch = productOutbox.findPending(batchSize);
+        lastBatchSize.set(batch.size());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> changedIds = batch.stream()
+                .filter(entry -> entry.getType() != ProductChangedEvent.ChangeType.DELETED)
+                .map(ProductOutboxEntry::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = new HashMap<>();
+        if (!changedIds.isEmpty()) {
+            // A lagging replica could miss a new product and have it sent as a tombstone
+            ReplicaRoutingDataSource.onPrimary(() -> productRepository.findAllById(changedIds))
+                    .forEach(product -> products.put(product.getId(), product));
+        }
+
+        long sendDeadline = System.nanoTime() + sendTimeout.toNanos();
+        List<CompletableFuture<Void>> sends = batch.stream()
+                .map(entry -> productChangePublisher.publish(entry.getProductId(), message(entry, products)))
+                .toList();
+        List<Long> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, sendDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                interruptedBatches.increment();
+                log.warn("Relaying product outbox entry {} failed, retrying from it on the next poll: {}",
+                        batch.get(i).getId(), e.getMessage());
+                break;
+            }
+        }
+
+        if (published.isEmpty()) {
+            return 0;
+        }
+        if (!lease.renew()) {
+            leader = false;
+            log.warn("Product outbox relay lease lost, leaving {} sent entries to the new holder", published.size());
+            return 0;
+        }
+        productOutbox.deleteAll(published);
+        relayed.add(published.size());
+        return published.size();
+    }
+
+    // Null, a tombstone, once the product is gone, whatever the entry recorded
+    private static ProductChangeMessage message(ProductOutboxEntry entry, Map<Long, Product> products) {
+        Product product = entry.getType() == ProductChangedEvent.ChangeType.DELETED
+                ? null
+                : products.get(entry.getProductId());
+        return product == null
+                ? null
+                : new ProductChangeMessage(entry.getType(), product.getId(), product.getVersion(), product);
+    }
+
+    private boolean canStartBatch(long turnDeadline) {
+        long now = System.nanoTime();
+        return now < turnDeadline && now < lease.expiresAt() - sendTimeout.toNanos();
+    }
+}
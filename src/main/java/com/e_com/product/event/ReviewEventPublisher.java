@@ -0,0 +1,68 @@
+package com.e_com.product.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends {@link ReviewAddedEvent}s to Kafka and tracks their delivery.
+ * <p>
+ * Records are keyed by product id so all events of a product land on one partition in order.
+ * Batching, compression and idempotence are producer settings ({@code spring.kafka.producer.*}).
+ * Durability and retries are the outbox's job: callers get the send result back and
+ * {@link ReviewOutboxRelay} keeps unsent events pending.
+ */
+@Slf4j
+@Component
+public class ReviewEventPublisher {
+
+    private final KafkaTemplate<String, ReviewAddedEvent> kafkaTemplate;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public ReviewEventPublisher(KafkaTemplate<String, ReviewAddedEvent> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Sends one event, completing once the broker acknowledged it or exceptionally if the send
+     * failed after the producer's own retries.
+     */
+    public CompletableFuture<Void> publish(String topic, String key, ReviewAddedEvent event) {
+        long start = System.nanoTime();
+        sent.increment();
+        try {
+            return kafkaTemplate.send(topic, key, event).handle((result, failure) -> {
+                if (failure != null) {
+                    failed.increment();
+                    throw failure instanceof RuntimeException runtime ? runtime : new IllegalStateException(failure);
+                }
+                long latency = System.nanoTime() - start;
+                acknowledged.increment();
+                totalLatencyNanos.add(latency);
+                maxLatencyNanos.accumulate(latency);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Raised before the record reached the producer, e.g. metadata unavailable within max.block.ms
+            failed.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public ReviewEventPublisherStats getStats() {
+        long acks = acknowledged.sum();
+        double averageLatencyMillis = acks == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.sum() / acks) / 1000.0;
+        return new ReviewEventPublisherStats(sent.sum(), acks, failed.sum(),
+                averageLatencyMillis, TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+    }
+}
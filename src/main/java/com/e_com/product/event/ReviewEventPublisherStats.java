@@ -0,0 +1,17 @@
+package com.e_com.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewEventPublisherStats {
+    private long sent;
+    private long acknowledged;
+    private long failed;
+    // Time from send to broker acknowledgement
+    private double averageLatencyMillis;
+    private long maxLatencyMillis;
+}
@@ -0,0 +1,99 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.OutboxEvent;
+import com.e_com.product.model.Review;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes reviews together with their {@link ReviewAddedEvent} outbox entry in one Mongo
+ * transaction, so an event exists exactly when its review does. Transactions need Mongo to run
+ * as a replica set.
+ * <p>
+ * The transaction manager is private to this class: registered as a bean it would replace the
+ * JPA transaction manager used by the product side.
+ */
+@Component
+public class ReviewOutbox {
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String topic;
+
+    public ReviewOutbox(MongoTemplate mongoTemplate,
+                        MongoDatabaseFactory mongoDatabaseFactory,
+                        @Value("${review.events.topic:review-added-events}") String topic) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = new TransactionTemplate(new MongoTransactionManager(mongoDatabaseFactory));
+        this.topic = topic;
+    }
+
+    public Review saveWithEvent(Review review) {
+        return transactionTemplate.execute(status -> {
+            Review savedReview = mongoTemplate.save(review);
+            mongoTemplate.insert(outboxEntry(savedReview, LocalDateTime.now()));
+            return savedReview;
+        });
+    }
+
+    /**
+     * Stores a batch of new reviews and their outbox entries in one transaction, each as a single
+     * unordered bulk insert. Reviews are given their ids up front, so the events can carry them.
+     * Either every review in the batch is stored or none is.
+     */
+    public List<Review> saveAllWithEvents(List<Review> reviews) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> entries = new ArrayList<>(reviews.size());
+            for (Review review : reviews) {
+                if (review.getId() == null) {
+                    review.setId(new ObjectId().toHexString());
+                }
+                entries.add(outboxEntry(review, now));
+            }
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class).insert(reviews).execute();
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class).insert(entries).execute();
+            return reviews;
+        });
+    }
+
+    private OutboxEvent outboxEntry(Review review, LocalDateTime createdAt) {
+        ReviewAddedEvent event = new ReviewAddedEvent(
+                review.getId(),
+                review.getProductId(),
+                review.getUserId(),
+                review.getRating(),
+                review.getComment(),
+                review.getReviewDate());
+        return new OutboxEvent(null, topic, String.valueOf(review.getProductId()), event,
+                OutboxEvent.Status.PENDING, createdAt, null);
+    }
+
+    /**
+     * Marks published entries created at or after {@code from} as pending again so the relay sends
+     * them once more. Only entries still within retention can be replayed.
+     *
+     * @return number of entries queued for replay
+     */
+    public long replay(LocalDateTime from) {
+        Query query = Query.query(Criteria.where("status").is(OutboxEvent.Status.PUBLISHED)
+                .and("createdAt").gte(from));
+        Update update = new Update()
+                .set("status", OutboxEvent.Status.PENDING)
+                .unset("publishedAt");
+        return mongoTemplate.updateMulti(query, update, OutboxEvent.class).getModifiedCount();
+    }
+}
@@ -0,0 +1,148 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the review outbox to Kafka in id order.
+ * <p>
+ * Only the node holding the relay lease ({@link OutboxLease}) relays, so several nodes can run
+ * this without sending the same entry twice in parallel. A batch is only started while its
+ * sends can finish before the lease runs out, and its status update is fenced by renewing the
+ * lease as its owner first, so a node that lost the lease leaves the entries to the new holder.
+ * Entries are marked published only up to the first failed send, which keeps per-product order;
+ * delivery is at-least-once, so consumers should de-duplicate on reviewId.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "review.outbox.relay.enabled", matchIfMissing = true)
+public class ReviewOutboxRelay {
+
+    private static final String LEASE_ID = "review-outbox-relay";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReviewEventPublisher reviewEventPublisher;
+    private final int batchSize;
+    private final Duration leaseTtl;
+    private final Duration sendTimeout;
+    private final OutboxLease lease;
+
+    private volatile boolean leader;
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder interruptedBatches = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+
+    public ReviewOutboxRelay(MongoTemplate mongoTemplate,
+                             ReviewEventPublisher reviewEventPublisher,
+                             @Value("${review.outbox.batch-size:500}") int batchSize,
+                             @Value("${review.outbox.lease-ttl:15s}") Duration leaseTtl,
+                             @Value("${review.outbox.send-timeout:10s}") Duration sendTimeout) {
+        if (sendTimeout.compareTo(leaseTtl) >= 0) {
+            throw new IllegalArgumentException("review.outbox.send-timeout must be shorter than review.outbox.lease-ttl");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.reviewEventPublisher = reviewEventPublisher;
+        this.batchSize = batchSize;
+        this.leaseTtl = leaseTtl;
+        this.sendTimeout = sendTimeout;
+        this.lease = new OutboxLease(mongoTemplate, LEASE_ID, leaseTtl);
+    }
+
+    /**
+     * Relays full batches back to back while the outbox has a backlog, giving up the turn after
+     * half the lease. A batch is only started while a full send timeout still fits in the lease.
+     */
+    @Scheduled(fixedDelayString = "${review.outbox.poll-interval:500ms}")
+    public void relay() {
+        long turnDeadline = System.nanoTime() + leaseTtl.toNanos() / 2;
+        try {
+            leader = lease.acquire();
+            if (!leader) {
+                return;
+            }
+            // Each batch renews the lease before its status update, which moves its expiry on
+            int relayedInBatch;
+            do {
+                relayedInBatch = relayBatch();
+            } while (relayedInBatch == batchSize && leader && canStartBatch(turnDeadline));
+        } catch (RuntimeException e) {
+            log.warn("Review outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    public OutboxRelayStats getStats() {
+        return new OutboxRelayStats(lease.nodeId(), leader, relayed.sum(), interruptedBatches.sum(), lastBatchSize.get());
+    }
+
+    int relayBatch() {
+        Query pending = Query.query(Criteria.where("status").is(OutboxEvent.Status.PENDING))
+                .with(Sort.by("id"))
+                .limit(batchSize);
+        List<OutboxEvent> batch = mongoTemplate.find(pending, OutboxEvent.class);
+        lastBatchSize.set(batch.size());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Hand the whole batch to the producer first so it can be batched, then wait in order. The
+        // send timeout covers the whole batch, not each entry, so the batch ends within the lease
+        long sendDeadline = System.nanoTime() + sendTimeout.toNanos();
+        List<CompletableFuture<Void>> sends = batch.stream()
+                .map(entry -> reviewEventPublisher.publish(entry.getTopic(), entry.getKey(), entry.getPayload()))
+                .toList();
+        List<String> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, sendDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                interruptedBatches.increment();
+                log.warn("Relaying outbox entry {} failed, retrying from it on the next poll: {}",
+                        batch.get(i).getId(), e.getMessage());
+                break;
+            }
+        }
+
+        if (published.isEmpty()) {
+            return 0;
+        }
+        if (!lease.renew()) {
+            // Another node may already be relaying these entries; it will send them again
+            leader = false;
+            log.warn("Review outbox relay lease lost, leaving {} sent entries to the new holder", published.size());
+            return 0;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(published)),
+                new Update().set("status", OutboxEvent.Status.PUBLISHED).set("publishedAt", LocalDateTime.now()),
+                OutboxEvent.class);
+        relayed.add(published.size());
+        return published.size();
+    }
+
+    // The batch's sends must be able to finish before the lease runs out
+    private boolean canStartBatch(long turnDeadline) {
+        long now = System.nanoTime();
+        return now < turnDeadline && now < lease.expiresAt() - sendTimeout.toNanos();
+    }
+}
@@ -0,0 +1,18 @@
+package com.e_com.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification from the user service that a user was registered, changed or removed. Only the
+ * user id is needed here; any other fields are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private Long userId;
+    private String type;
+}
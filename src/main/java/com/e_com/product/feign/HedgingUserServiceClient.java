@@ -0,0 +1,420 @@
+package com.e_com.product.feign;
+
+import com.e_com.product.config.FeignConfig;
+import feign.Request;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.openfeign.FeignClientBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@link UserServiceClient} the rest of the service sees. Every lookup runs on a small
+ * dedicated pool, so a slow user-service can only tie up that pool and never the request threads,
+ * and the caller waits at most a timeout derived from recent latencies rather than the full Feign
+ * read timeout.
+ * <p>
+ * Instances come from discovery and are tried round-robin. When the first attempt has not answered
+ * by the latency percentile configured for hedging, the same lookup is sent to the next instance
+ * and whichever answers first is returned. Hedges are drawn from a budget refilled by every call,
+ * so a slow fleet sees at most {@code maxRatio} extra load. An attempt that fails (refused
+ * connection, error response) is sent on to the next instance not yet tried, while the caller is
+ * still waiting and a second budget allows it. Without discovered instances the call
+ * goes through the load-balanced client unhedged, and any failure, timeout or full bulkhead is
+ * answered by {@link UserServiceClientFallback}.
+ * <p>
+ * Attempts can outlive the request that started them, so they never touch its request attributes:
+ * the bearer token is read on the request thread and handed to each attempt as a plain string.
+ */
+@Slf4j
+@Primary
+@Component
+public class HedgingUserServiceClient implements UserServiceClient, InitializingBean, DisposableBean {
+
+    public static final String LOAD_BALANCED_CLIENT = "loadBalancedUserServiceClient";
+
+    private static final String SERVICE_ID = "user-service";
+    private static final long FALLBACK_USER_ID = -1L;
+    // Hedges and failovers that can each be saved up during quiet periods
+    private static final double BUDGET_CAP = 10;
+
+    private final UserServiceCallProperties properties;
+    private final Supplier<List<URI>> instances;
+    private final Function<URI, UserServiceClient> clientFactory;
+    private final UserServiceClient loadBalancedClient;
+    private final UserServiceClient fallback;
+    private final ThreadPoolExecutor bulkhead;
+    private final LatencyWindow latencies;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<URI, UserServiceClient> instanceClients = new ConcurrentHashMap<>();
+    private final AtomicInteger nextInstance = new AtomicInteger();
+    private final Budget hedgeBudget = new Budget();
+    private final Budget failoverBudget = new Budget();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+    // Registered with the other meters once the client is constructed
+    private Timer latencySaved;
+
+    @Autowired
+    public HedgingUserServiceClient(UserServiceCallProperties properties,
+                                    DiscoveryClient discoveryClient,
+                                    ApplicationContext applicationContext,
+                                    @Qualifier(LOAD_BALANCED_CLIENT) UserServiceClient loadBalancedClient,
+                                    UserServiceClientFallback fallback,
+                                    MeterRegistry meterRegistry) {
+        this(properties,
+                () -> discoveryClient.getInstances(SERVICE_ID).stream().map(ServiceInstance::getUri).toList(),
+                uri -> instanceClient(applicationContext, uri, properties.getTimeout().getMax()),
+                loadBalancedClient, fallback, meterRegistry);
+    }
+
+    HedgingUserServiceClient(UserServiceCallProperties properties,
+                             Supplier<List<URI>> instances,
+                             Function<URI, UserServiceClient> clientFactory,
+                             UserServiceClient loadBalancedClient,
+                             UserServiceClient fallback,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.instances = instances;
+        this.clientFactory = clientFactory;
+        this.loadBalancedClient = loadBalancedClient;
+        this.fallback = fallback;
+        this.latencies = new LatencyWindow(properties.getLatencyWindow());
+        this.meterRegistry = meterRegistry;
+
+        int threads = properties.getBulkhead().getMaxConcurrentCalls();
+        int queued = properties.getBulkhead().getMaxQueuedCalls();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                queued > 0 ? new ArrayBlockingQueue<>(queued) : new SynchronousQueue<>(),
+                new CustomizableThreadFactory("user-service-call-"));
+        executor.allowCoreThreadTimeOut(true);
+        this.bulkhead = executor;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        FunctionCounter.builder("user.service.calls", calls, LongAdder::sum)
+                .description("User lookups made against user-service")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.service.fallbacks", failures, LongAdder::sum)
+                .description("Lookups answered by the fallback, by reason")
+                .tag("reason", "error")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.service.fallbacks", timeouts, LongAdder::sum)
+                .description("Lookups answered by the fallback, by reason")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.service.fallbacks", bulkheadRejections, LongAdder::sum)
+                .description("Lookups answered by the fallback, by reason")
+                .tag("reason", "bulkhead")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.service.hedges", hedges, LongAdder::sum)
+                .description("Second attempts sent to another instance")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.service.hedge.wins", hedgeWins, LongAdder::sum)
+                .description("Hedges that answered before the first attempt")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.service.failovers", failovers, LongAdder::sum)
+                .description("Attempts sent to another instance after one failed")
+                .register(meterRegistry);
+        this.latencySaved = Timer.builder("user.service.hedge.latency.saved")
+                .description("Time first attempts took beyond the hedge that answered for them")
+                .register(meterRegistry);
+        Gauge.builder("user.service.timeout", this, client -> client.timeoutNanos() / 1e9)
+                .description("Current adaptive timeout for user lookups")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("user.service.hedge.delay", this, client -> Math.max(0, client.hedgeDelayNanos()) / 1e9)
+                .description("Current delay before a lookup is hedged, zero while hedging is off")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("user.service.bulkhead.active", bulkhead, ThreadPoolExecutor::getActiveCount)
+                .description("Attempts running on the user-service bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("user.service.bulkhead.queued", bulkhead, pool -> pool.getQueue().size())
+                .description("Attempts waiting for a bulkhead thread")
+                .register(meterRegistry);
+    }
+
+    // Read on the request thread: the attempts run on bulkhead threads that may outlive the request
+    @Override
+    public UserDto getUserById(Long userId) {
+        return getUserById(userId, FeignConfig.currentBearerAuthorization());
+    }
+
+    @Override
+    public UserDto getUserById(Long userId, String authorization) {
+        calls.increment();
+        hedgeBudget.deposit(properties.getHedge().getMaxRatio());
+        failoverBudget.deposit(properties.getFailover().getMaxRatio());
+
+        List<URI> targets = instances.get();
+        instanceClients.keySet().removeIf(instance -> !targets.contains(instance));
+        Call call = new Call(userId, authorization, targets);
+        try {
+            call.launch(false);
+        } catch (RejectedExecutionException e) {
+            bulkheadRejections.increment();
+            log.warn("User service bulkhead is full, answering getUserById({}) with the fallback", userId);
+            return fallback.getUserById(userId, authorization);
+        }
+
+        long timeoutNanos = timeoutNanos();
+        long hedgeDelayNanos = hedgeDelayNanos();
+        try {
+            if (call.canHedge() && hedgeDelayNanos > 0 && hedgeDelayNanos < timeoutNanos) {
+                try {
+                    return call.result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    call.hedge();
+                }
+            }
+            long remainingNanos = timeoutNanos - (System.nanoTime() - call.startNanos);
+            return call.result.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            log.warn("User service did not answer getUserById({}) within {} ms, returning fallback user",
+                    userId, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        } catch (ExecutionException e) {
+            failures.increment();
+            log.warn("User service call getUserById({}) failed, returning fallback user", userId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.increment();
+        } finally {
+            call.finish();
+        }
+        return fallback.getUserById(userId, authorization);
+    }
+
+    public UserServiceCallStats getStats() {
+        return new UserServiceCallStats(calls.sum(), failures.sum(), timeouts.sum(), bulkheadRejections.sum(),
+                hedges.sum(), hedgeWins.sum(), failovers.sum(), latencySaved.totalTime(TimeUnit.MILLISECONDS),
+                timeoutNanos() / 1e6, Math.max(0, hedgeDelayNanos()) / 1e6,
+                bulkhead.getActiveCount(), bulkhead.getQueue().size());
+    }
+
+    @Override
+    public void destroy() {
+        bulkhead.shutdownNow();
+    }
+
+    long timeoutNanos() {
+        UserServiceCallProperties.Timeout timeout = properties.getTimeout();
+        long max = timeout.getMax().toNanos();
+        if (latencies.size() < properties.getMinSamples()) {
+            return max;
+        }
+        long adaptive = (long) (latencies.percentile(timeout.getPercentile()) * timeout.getMultiplier());
+        return Math.max(timeout.getMin().toNanos(), Math.min(adaptive, max));
+    }
+
+    // -1 while hedging is off or there are too few samples
+    long hedgeDelayNanos() {
+        UserServiceCallProperties.Hedge hedge = properties.getHedge();
+        if (!hedge.isEnabled() || latencies.size() < properties.getMinSamples()) {
+            return -1;
+        }
+        return Math.max(hedge.getMinDelay().toNanos(), latencies.percentile(hedge.getPercentile()));
+    }
+
+
+    private UserServiceClient clientFor(URI instance) {
+        return instanceClients.computeIfAbsent(instance, clientFactory);
+    }
+
+    // Bound to one instance and without a fallback, so failures reach the hedging logic; the read
+    // timeout is cut to the longest the caller will wait so abandoned attempts free their thread
+    private static UserServiceClient instanceClient(ApplicationContext applicationContext, URI uri, Duration maxTimeout) {
+        Request.Options options = new Request.Options(
+                maxTimeout.toMillis(), TimeUnit.MILLISECONDS, maxTimeout.toMillis(), TimeUnit.MILLISECONDS, true);
+        return new FeignClientBuilder(applicationContext)
+                .forType(UserServiceClient.class, SERVICE_ID)
+                .url(uri.toString())
+                .customize(builder -> builder.options(options))
+                .build();
+    }
+
+    private final class Call {
+
+        final CompletableFuture<UserDto> result = new CompletableFuture<>();
+        final long startNanos = System.nanoTime();
+        final Long userId;
+        // Passed explicitly, never read from the caller's request on a bulkhead thread
+        final String authorization;
+        final List<URI> targets;
+        final int first;
+        // Instances tried so far, each attempt goes to the next one after first
+        final AtomicInteger tried = new AtomicInteger();
+        // Launched attempts that have not failed yet
+        final AtomicInteger pending = new AtomicInteger();
+        final List<Runnable> launched = new CopyOnWriteArrayList<>();
+        volatile long hedgeAnsweredAt;
+
+        Call(Long userId, String authorization, List<URI> targets) {
+            this.userId = userId;
+            this.authorization = authorization;
+            this.targets = targets;
+            this.first = targets.isEmpty() ? 0 : Math.floorMod(nextInstance.getAndIncrement(), targets.size());
+        }
+
+        boolean canHedge() {
+            return targets.size() > 1;
+        }
+
+        boolean hasUntriedInstance() {
+            return tried.get() < targets.size();
+        }
+
+        void hedge() {
+            if (!hasUntriedInstance() || !hedgeBudget.withdraw()) {
+                return;
+            }
+            try {
+                launch(true);
+                hedges.increment();
+            } catch (RejectedExecutionException e) {
+                hedgeBudget.deposit(1);
+                log.debug("User service bulkhead is full, not hedging getUserById({})", userId);
+            }
+        }
+
+        // The caller has its answer or has given up: attempts still queued are dropped, running
+        // ones are left to finish so their latency is still measured
+        void finish() {
+            result.cancel(false);
+            launched.forEach(bulkhead::remove);
+        }
+
+        void launch(boolean hedge) {
+            UserServiceClient client = targets.isEmpty()
+                    ? loadBalancedClient
+                    : clientFor(targets.get((first + tried.getAndIncrement()) % targets.size()));
+            Runnable attempt = () -> attempt(client, hedge);
+            pending.incrementAndGet();
+            try {
+                bulkhead.execute(attempt);
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+            launched.add(attempt);
+        }
+
+        // Sends a failed attempt on to an instance not tried yet, in the same role (first attempt
+        // or hedge), as long as the caller still waits and the failover budget allows it
+        private void failOver(boolean hedge, Exception cause) {
+            if (result.isDone() || !hasUntriedInstance() || !failoverBudget.withdraw()) {
+                return;
+            }
+            try {
+                launch(hedge);
+            } catch (RejectedExecutionException e) {
+                failoverBudget.deposit(1);
+                return;
+            }
+            failovers.increment();
+            log.debug("User service attempt for getUserById({}) failed, trying another instance: {}",
+                    userId, cause.getMessage());
+        }
+
+        private void attempt(UserServiceClient client, boolean hedge) {
+            // The caller already has an answer or has given up
+            if (result.isDone()) {
+                return;
+            }
+            long attemptStart = System.nanoTime();
+            try {
+                UserDto user = client.getUserById(userId, authorization);
+                long answeredAt = System.nanoTime();
+                if (user == null || user.getId() == null || user.getId() != FALLBACK_USER_ID) {
+                    latencies.record(answeredAt - attemptStart);
+                }
+                if (hedge) {
+                    // Set before completing, so a first attempt finishing right after sees it
+                    hedgeAnsweredAt = answeredAt;
+                }
+                if (result.complete(user)) {
+                    if (hedge) {
+                        hedgeWins.increment();
+                    }
+                } else if (hedge) {
+                    hedgeAnsweredAt = 0;
+                } else {
+                    recordSaving(answeredAt);
+                }
+            } catch (RuntimeException e) {
+                // The failover counts as pending before this attempt stops, so the call stays open
+                failOver(hedge, e);
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+                if (!hedge) {
+                    recordSaving(System.nanoTime());
+                }
+            }
+        }
+
+        // A first attempt finishing after its hedge answered shows how long the caller would have waited
+        private void recordSaving(long finishedAt) {
+            long answeredAt = hedgeAnsweredAt;
+            if (answeredAt != 0 && finishedAt > answeredAt) {
+                latencySaved.record(finishedAt - answeredAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Token bucket refilled by every call, so extra attempts stay a bounded share of the calls
+    private static final class Budget {
+
+        private double tokens = BUDGET_CAP;
+
+        synchronized void deposit(double amount) {
+            tokens = Math.min(BUDGET_CAP, tokens + amount);
+        }
+
+        synchronized boolean withdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
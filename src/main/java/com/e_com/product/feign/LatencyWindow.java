@@ -0,0 +1,49 @@
+package com.e_com.product.feign;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the last {@code capacity} calls. Percentiles are read from a sorted copy that is
+ * rebuilt every {@code capacity / 16} samples, so lookups on the call path stay cheap and trail
+ * the live window only slightly.
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private final int refreshEvery;
+    private int next;
+    private int size;
+    private int sinceRefresh;
+    private long[] sorted = new long[0];
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+        this.refreshEvery = Math.max(1, capacity / 16);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        if (++sinceRefresh >= refreshEvery || sorted.length < refreshEvery) {
+            sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            sinceRefresh = 0;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Nearest-rank percentile, {@code -1} while the window is empty.
+     */
+    synchronized long percentile(double percentile) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,57 @@
+package com.e_com.product.feign;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user.service.call")
+public class UserServiceCallProperties {
+
+    private Bulkhead bulkhead = new Bulkhead();
+    private Timeout timeout = new Timeout();
+    private Hedge hedge = new Hedge();
+    private Failover failover = new Failover();
+
+    // Successful calls the latency percentiles are taken from
+    private int latencyWindow = 1000;
+
+    // Samples needed before the percentiles are trusted; until then the timeout is the maximum
+    // and nothing is hedged
+    private int minSamples = 50;
+
+    @Data
+    public static class Bulkhead {
+        // Calls and hedges running against user-service at once, each on a bulkhead thread
+        private int maxConcurrentCalls = 32;
+        // Calls waiting for a bulkhead thread; beyond that the fallback answers at once
+        private int maxQueuedCalls = 64;
+    }
+
+    @Data
+    public static class Timeout {
+        // The caller gives up after this latency percentile times the multiplier, within min and max
+        private double percentile = 0.99;
+        private double multiplier = 2.0;
+        private Duration min = Duration.ofMillis(100);
+        private Duration max = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Hedge {
+        private boolean enabled = true;
+        // A second instance is asked once the first has taken longer than this latency percentile
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        // Hedges allowed per call over time, so a slow fleet is not sent twice the load
+        private double maxRatio = 0.1;
+    }
+
+    @Data
+    public static class Failover {
+        // Attempts sent to another instance after one failed, allowed per call over time, so a
+        // failing fleet is not sent every lookup once per instance
+        private double maxRatio = 0.5;
+    }
+}
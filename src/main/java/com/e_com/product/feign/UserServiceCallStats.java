@@ -0,0 +1,28 @@
+package com.e_com.product.feign;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserServiceCallStats {
+    private long calls;
+    // Calls answered by the fallback because every attempt failed
+    private long failures;
+    private long timeouts;
+    private long bulkheadRejections;
+    private long hedges;
+    // Hedges that answered before the first attempt
+    private long hedgeWins;
+    // Attempts sent to another instance after one failed
+    private long failovers;
+    // Time the first attempts of hedge-won calls took beyond the winning hedge
+    private double latencySavedMillis;
+    private double timeoutMillis;
+    // Zero while there are too few samples to hedge
+    private double hedgeDelayMillis;
+    private int activeAttempts;
+    private int queuedAttempts;
+}
@@ -3,14 +3,27 @@ package com.e_com.product.feign;
 import com.e_com.product.config.FeignConfig;
 import lombok.Data;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
-@FeignClient(name = "user-service", configuration = FeignConfig.class, fallback = UserServiceClientFallback.class)
+// Not primary: callers get HedgingUserServiceClient, which uses this client when discovery lists no instances
+@FeignClient(name = "user-service", configuration = FeignConfig.class, fallback = UserServiceClientFallback.class,
+        primary = false, qualifiers = HedgingUserServiceClient.LOAD_BALANCED_CLIENT)
 public interface UserServiceClient {
 
+    /**
+     * Looks up a user, forwarding {@code authorization} as the Authorization header. With a null
+     * header, {@link FeignConfig} forwards the current request's bearer token instead.
+     */
     @GetMapping("/api/users/{userId}")
-    UserDto getUserById(@PathVariable("userId") Long userId);
+    UserDto getUserById(@PathVariable("userId") Long userId,
+                        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization);
+
+    default UserDto getUserById(Long userId) {
+        return getUserById(userId, null);
+    }
 
     @Data
     class UserDto {
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Component;
 public class UserServiceClientFallback implements UserServiceClient {
 
     @Override
-    public UserDto getUserById(Long userId) {
+    public UserDto getUserById(Long userId, String authorization) {
         log.warn("Fallback triggered for getUserById({}). User service is unavailable. Returning fallback user.", userId);
 
         // Return a fallback user object with a special marker ID (-1) to indicate fallback was triggered
@@ -0,0 +1,129 @@
+package com.e_com.product.feign;
+
+import com.e_com.product.event.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local cache of user-service lookups in front of {@link UserServiceClient}, so repeat reviewers
+ * do not pay for a remote call on every review.
+ * <p>
+ * Existing users are kept for the positive TTL and unknown users for the shorter negative TTL.
+ * Fallback answers (id {@code -1}) and failed calls are passed through uncached so an outage is
+ * never remembered. Entries can be dropped early by the optional user-change event feed.
+ */
+@Slf4j
+@Component
+public class VerifiedUserCache {
+
+    private static final long FALLBACK_USER_ID = -1L;
+
+    private final UserServiceClient userServiceClient;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, CachedUser> cache;
+
+    private final LongAdder positiveHits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncacheable = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public VerifiedUserCache(UserServiceClient userServiceClient,
+                             ObjectMapper objectMapper,
+                             @Value("${user.cache.positive-ttl:10m}") Duration positiveTtl,
+                             @Value("${user.cache.negative-ttl:30s}") Duration negativeTtl,
+                             @Value("${user.cache.maximum-size:100000}") long maximumSize) {
+        this.userServiceClient = userServiceClient;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, CachedUser>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, CachedUser entry, long currentTime) {
+                        return (entry.user() != null ? positiveTtl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, CachedUser entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, CachedUser entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Same contract as {@link UserServiceClient#getUserById(Long)}: a user with a null id means the
+     * user does not exist, and id {@code -1} means the user service could not be reached.
+     */
+    public UserServiceClient.UserDto getUserById(Long userId) {
+        CachedUser cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            (cached.user() != null ? positiveHits : negativeHits).increment();
+            return cached.user() != null ? copy(cached.user()) : new UserServiceClient.UserDto();
+        }
+        misses.increment();
+
+        UserServiceClient.UserDto user = userServiceClient.getUserById(userId);
+        if (user == null || user.getId() == null) {
+            cache.put(userId, new CachedUser(null));
+            return new UserServiceClient.UserDto();
+        }
+        if (user.getId() == FALLBACK_USER_ID || !user.getId().equals(userId)) {
+            uncacheable.increment();
+            return user;
+        }
+        cache.put(userId, new CachedUser(copy(user)));
+        return user;
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        invalidations.increment();
+    }
+
+    public VerifiedUserCacheStats getStats() {
+        return new VerifiedUserCacheStats(cache.estimatedSize(), positiveHits.sum(), negativeHits.sum(),
+                misses.sum(), uncacheable.sum(), invalidations.sum());
+    }
+
+    // Every node keeps its own cache, so every node needs its own consumer group
+    @KafkaListener(topics = "${user.cache.invalidation-topic:user-changed-events}",
+            groupId = "${spring.application.name}-user-cache-${random.uuid}",
+            autoStartup = "${user.cache.invalidation-listener.enabled:false}")
+    public void onUserChanged(String payload) {
+        try {
+            UserChangedEvent event = objectMapper.readValue(payload, UserChangedEvent.class);
+            if (event.getUserId() != null) {
+                invalidate(event.getUserId());
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable user change event: {}", payload, e);
+        }
+    }
+
+    private static UserServiceClient.UserDto copy(UserServiceClient.UserDto user) {
+        UserServiceClient.UserDto copy = new UserServiceClient.UserDto();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        return copy;
+    }
+
+    // A null user marks a negative entry
+    private record CachedUser(UserServiceClient.UserDto user) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.e_com.product.feign;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerifiedUserCacheStats {
+    private long size;
+    private long positiveHits;
+    private long negativeHits;
+    private long misses;
+    // Lookups answered by the circuit-breaker fallback or failed calls, never cached
+    private long uncacheable;
+    private long invalidations;
+}
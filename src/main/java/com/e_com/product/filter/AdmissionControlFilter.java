@@ -0,0 +1,117 @@
+package com.e_com.product.filter;
+
+import com.e_com.product.admission.AdmissionController;
+import com.e_com.product.admission.GradientLimiter;
+import com.e_com.product.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects requests to limited endpoint groups once their concurrency limit is reached, before they
+ * queue for a Tomcat worker's share of the connection pools. Runs after the JWT filter so callers
+ * with a valid token draw on the authenticated budget; an anonymous caller over its budget gets
+ * 429, an authenticated one 503, both with Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean authenticated = isAuthenticated(SecurityContextHolder.getContext().getAuthentication());
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        GradientLimiter limiter = admissionController.limiterFor(path, authenticated);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GradientLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            reject(response, authenticated);
+            return;
+        }
+
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (failed) {
+                permit.onDropped();
+            } else if (request.isAsyncStarted()) {
+                // Async handlers finish on another thread; the permit is held until they do
+                request.getAsyncContext().addListener(new PermitReleasingListener(permit));
+            } else {
+                complete(permit, response);
+            }
+        }
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    private static void complete(GradientLimiter.Permit permit, HttpServletResponse response) {
+        if (response.getStatus() >= 500) {
+            permit.onDropped();
+        } else {
+            permit.onSuccess();
+        }
+    }
+
+    private void reject(HttpServletResponse response, boolean authenticated) throws IOException {
+        HttpStatus status = authenticated ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+        long retryAfterSeconds = Math.max(1, admissionController.getRetryAfter().toSeconds());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.name(), "Too many concurrent requests, retry later"));
+    }
+
+    private record PermitReleasingListener(GradientLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete(permit, (HttpServletResponse) event.getSuppliedResponse());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.onDropped();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.onDropped();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still the same request
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.e_com.product.model;
+
+import com.e_com.product.event.ReviewAddedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Review event written in the same transaction as its review and relayed to Kafka afterwards.
+ * Published entries are kept for the retention period so they can be replayed.
+ */
+@Document(collection = "review_outbox")
+@CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public enum Status {
+        PENDING, PUBLISHED
+    }
+
+    @Id
+    private String id;
+    private String topic;
+    // Kafka record key
+    private String key;
+    private ReviewAddedEvent payload;
+    private Status status;
+    private LocalDateTime createdAt;
+    // Retention: Mongo removes published entries a week after publishing; pending ones never expire
+    @Indexed(name = "published_ttl", expireAfter = "7d")
+    private LocalDateTime publishedAt;
+}
@@ -1,9 +1,11 @@
 package com.e_com.product.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,4 +26,8 @@ public class Product implements Serializable {
     private String description;
     private Double price;
     private String category;
+    // Bumped on every update; change events carry it so consumers can drop stale or repeated ones
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,14 @@
+package com.e_com.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupResult {
+    private Long id;
+    private boolean found;
+    private Product product;
+}
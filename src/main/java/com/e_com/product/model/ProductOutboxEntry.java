@@ -0,0 +1,39 @@
+package com.e_com.product.model;
+
+import com.e_com.product.event.ProductChangedEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Product change written in the same transaction as the product and relayed to the product
+ * change topic afterwards. It names the product that changed, not its state: the relay sends the
+ * product as it is when relayed. Entries are deleted once the broker acknowledged them.
+ */
+@Entity
+@Table(name = "product_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private Long productId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangedEvent.ChangeType type;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,54 @@
+package com.e_com.product.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running rating totals for one product, maintained alongside the {@code reviews} collection so
+ * averages and histograms never require reading the reviews themselves.
+ */
+@Document(collection = "review_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(value = "average", allowGetters = true)
+public class ProductRatingSummary {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    @Id
+    private Long productId;
+    private long count;
+    private long sum;
+    // Number of reviews per star rating, keyed "1" to "5"
+    private Map<String, Long> histogram = new LinkedHashMap<>();
+    // Date of the most recent review counted in this summary
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastUpdated;
+
+    public static ProductRatingSummary empty(Long productId) {
+        return new ProductRatingSummary(productId, 0, 0, emptyHistogram(), null);
+    }
+
+    public static Map<String, Long> emptyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int rating = MIN_RATING; rating <= MAX_RATING; rating++) {
+            histogram.put(String.valueOf(rating), 0L);
+        }
+        return histogram;
+    }
+
+    public Double getAverage() {
+        return count == 0 ? null : (double) sum / count;
+    }
+}
@@ -0,0 +1,28 @@
+package com.e_com.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private long total;
+    private int page;
+    private int size;
+    private List<Hit> hits;
+    // Match counts per category, ignoring the category filter so other categories stay visible
+    private Map<String, Long> categoryFacets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private Product product;
+        private double score;
+    }
+}
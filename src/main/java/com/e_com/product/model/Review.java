@@ -3,11 +3,17 @@ package com.e_com.product.model;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Id;
 import lombok.Data;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
+// One index per listing order, matching the equality field and every sort key of the keyset query
 @Document(collection = "reviews")
+@CompoundIndex(name = "product_newest", def = "{'productId': 1, 'reviewDate': -1, '_id': -1}")
+@CompoundIndex(name = "product_rating", def = "{'productId': 1, 'rating': -1, 'reviewDate': -1, '_id': -1}")
+@CompoundIndex(name = "user_newest", def = "{'userId': 1, 'reviewDate': -1, '_id': -1}")
+@CompoundIndex(name = "user_rating", def = "{'userId': 1, 'rating': -1, 'reviewDate': -1, '_id': -1}")
 @Data
 public class Review {
 
@@ -0,0 +1,23 @@
+package com.e_com.product.model;
+
+import java.util.Locale;
+
+/**
+ * Orderings offered for review listings. Every ordering ends with reviewDate and id descending so
+ * positions are unique and keyset cursors stay stable.
+ */
+public enum ReviewSort {
+    NEWEST,
+    RATING;
+
+    public static ReviewSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort '" + value + "', expected newest or rating", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.e_com.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product's response body, encoded once and cached so that reads write the bytes as they are.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerializedProduct {
+    // Entity version the body was encoded from, sent as the ETag
+    private long version;
+    private byte[] json;
+    // Gzip-encoded copy of json, null when the body is too small for compression to pay off
+    private byte[] gzip;
+}
@@ -0,0 +1,67 @@
+package com.e_com.product.readmodel;
+
+/**
+ * Set of primitive {@code long} values in one open-addressing table (linear probing), so a value
+ * costs its 8-byte slot and no object. Zero marks a free slot and cannot be added. Values are
+ * expected to be hashes already; their low bits pick the slot. Not thread-safe.
+ */
+final class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] slots;
+    private int size;
+
+    LongHashSet(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+        slots = new long[Math.max(8, Integer.highestOneBit(Math.max(1, needed - 1)) << 1)];
+    }
+
+    /**
+     * Adds the value, returning false when it was already present.
+     */
+    boolean add(long value) {
+        if (value == 0) {
+            throw new IllegalArgumentException("0 cannot be added to a LongHashSet");
+        }
+        if (size + 1 > slots.length * LOAD_FACTOR) {
+            resize();
+        }
+        if (!insert(slots, value)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    private void resize() {
+        long[] resized = new long[slots.length * 2];
+        for (long value : slots) {
+            if (value != 0) {
+                insert(resized, value);
+            }
+        }
+        slots = resized;
+    }
+
+    private static boolean insert(long[] slots, long value) {
+        int mask = slots.length - 1;
+        for (int slot = (int) value & mask; ; slot = (slot + 1) & mask) {
+            if (slots[slot] == 0) {
+                slots[slot] = value;
+                return true;
+            }
+            if (slots[slot] == value) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.e_com.product.readmodel;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Map from primitive {@code long} keys to values, without boxing keys or allocating an entry per
+ * mapping. Keys are spread over segments, each an open-addressing table (linear probing) with its
+ * own {@link StampedLock}; reads are optimistic and only take the lock when they race a write.
+ * Values must not be null.
+ */
+public class LongObjectStore<V> {
+
+    private static final int SEGMENTS = 64;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public LongObjectStore(int expectedSize) {
+        segments = (Segment<V>[]) new Segment<?>[SEGMENTS];
+        int perSegment = Math.max(8, expectedSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    public V get(long key) {
+        long hash = mix(key);
+        return segments[(int) (hash >>> 58)].get(key, hash);
+    }
+
+    public void put(long key, V value) {
+        long hash = mix(key);
+        segments[(int) (hash >>> 58)].put(key, hash, value);
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Visits every value; each segment is read under its lock, so values written meanwhile may
+     * or may not be seen.
+     */
+    public void forEachValue(Consumer<V> action) {
+        for (Segment<V> segment : segments) {
+            segment.forEachValue(action);
+        }
+    }
+
+    // Stafford variant 13 of the SplitMix64 finalizer; the top bits pick the segment, the low bits the slot
+    private static long mix(long key) {
+        long z = key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+        // Keys and values are swapped together on resize, so a reader never pairs arrays of different tables
+        private Table table;
+        private int size;
+
+        private Segment(int expectedSize) {
+            table = new Table(tableSize(expectedSize));
+        }
+
+        private V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            V value = find(table, key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = find(table, key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        private void put(long key, long hash, V value) {
+            long stamp = lock.writeLock();
+            try {
+                if (size + 1 > table.keys.length * LOAD_FACTOR) {
+                    table = table.resized();
+                }
+                if (table.insert(key, hash, value)) {
+                    size++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(tableSize(8));
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void forEachValue(Consumer<V> action) {
+            long stamp = lock.readLock();
+            try {
+                for (Object value : table.values) {
+                    if (value != null) {
+                        action.accept((V) value);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // May see a half-written slot during an optimistic read; the caller's validate() discards that result
+        @SuppressWarnings("unchecked")
+        private static <V> V find(Table table, long key, long hash) {
+            int mask = table.keys.length - 1;
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                Object value = table.values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (table.keys[slot] == key) {
+                    return (V) value;
+                }
+            }
+        }
+
+        private static int tableSize(int expectedSize) {
+            int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+            return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+        }
+    }
+
+    private static final class Table {
+
+        private final long[] keys;
+        private final Object[] values;
+
+        private Table(int size) {
+            keys = new long[size];
+            values = new Object[size];
+        }
+
+        private Table resized() {
+            Table resized = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    resized.insert(keys[i], mix(keys[i]), values[i]);
+                }
+            }
+            return resized;
+        }
+
+        // Returns true when the key was not present yet
+        private boolean insert(long key, long hash, Object value) {
+            int mask = keys.length - 1;
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                if (values[slot] == null) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    return true;
+                }
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.e_com.product.readmodel;
+
+import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.Review;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of one product's reviews: rating totals over every review seen, plus the newest
+ * reviews in newest-first order kept as parallel arrays rather than one object per review.
+ * Applying an event returns a new view, so readers never see a half-applied one.
+ */
+final class ProductReviewView {
+
+    private final long productId;
+    private final long count;
+    private final long sum;
+    // Reviews per star, index 0 for one star
+    private final long[] histogram;
+    private final LocalDateTime lastReviewDate;
+
+    private final String[] ids;
+    private final long[] userIds;
+    private final byte[] ratings;
+    // Review dates as UTC epoch seconds, the resolution the event carries
+    private final long[] dates;
+    private final String[] comments;
+
+    private ProductReviewView(long productId, long count, long sum, long[] histogram, LocalDateTime lastReviewDate,
+                              String[] ids, long[] userIds, byte[] ratings, long[] dates, String[] comments) {
+        this.productId = productId;
+        this.count = count;
+        this.sum = sum;
+        this.histogram = histogram;
+        this.lastReviewDate = lastReviewDate;
+        this.ids = ids;
+        this.userIds = userIds;
+        this.ratings = ratings;
+        this.dates = dates;
+        this.comments = comments;
+    }
+
+    static ProductReviewView empty(long productId) {
+        return new ProductReviewView(productId, 0, 0, new long[ProductRatingSummary.MAX_RATING], null,
+                new String[0], new long[0], new byte[0], new long[0], new String[0]);
+    }
+
+    /**
+     * Adds a review the view has not seen yet. Events need not arrive in review date order (an
+     * outbox replay or a late relay can deliver an older review after a newer one), so the review
+     * is inserted at its place in the newest-first order, or only counted when it is older than
+     * every review kept.
+     */
+    ProductReviewView apply(ReviewAddedEvent event, int latestLimit) {
+        int rating = event.getRating();
+        long[] newHistogram = histogram.clone();
+        newHistogram[rating - 1]++;
+        LocalDateTime newLastReviewDate = lastReviewDate == null || event.getReviewDate().isAfter(lastReviewDate)
+                ? event.getReviewDate()
+                : lastReviewDate;
+
+        long date = epochSeconds(event.getReviewDate());
+        int position = 0;
+        while (position < ids.length && isNewerThan(position, date, event.getReviewId())) {
+            position++;
+        }
+        if (position >= latestLimit) {
+            return new ProductReviewView(productId, count + 1, sum + rating, newHistogram, newLastReviewDate,
+                    ids, userIds, ratings, dates, comments);
+        }
+
+        int kept = Math.min(ids.length + 1, latestLimit);
+        String[] newIds = new String[kept];
+        long[] newUserIds = new long[kept];
+        byte[] newRatings = new byte[kept];
+        long[] newDates = new long[kept];
+        String[] newComments = new String[kept];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(userIds, 0, newUserIds, 0, position);
+        System.arraycopy(ratings, 0, newRatings, 0, position);
+        System.arraycopy(dates, 0, newDates, 0, position);
+        System.arraycopy(comments, 0, newComments, 0, position);
+        newIds[position] = event.getReviewId();
+        newUserIds[position] = event.getUserId() != null ? event.getUserId() : 0;
+        newRatings[position] = (byte) rating;
+        newDates[position] = date;
+        newComments[position] = event.getComment();
+        int after = kept - position - 1;
+        System.arraycopy(ids, position, newIds, position + 1, after);
+        System.arraycopy(userIds, position, newUserIds, position + 1, after);
+        System.arraycopy(ratings, position, newRatings, position + 1, after);
+        System.arraycopy(dates, position, newDates, position + 1, after);
+        System.arraycopy(comments, position, newComments, position + 1, after);
+
+        return new ProductReviewView(productId, count + 1, sum + rating, newHistogram, newLastReviewDate,
+                newIds, newUserIds, newRatings, newDates, newComments);
+    }
+
+    // Newest-first order is by review date, then id, the same order Mongo pages by
+    private boolean isNewerThan(int position, long date, String reviewId) {
+        if (dates[position] != date) {
+            return dates[position] > date;
+        }
+        return ids[position].compareTo(reviewId) > 0;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    int getLatestSize() {
+        return ids.length;
+    }
+
+    /**
+     * The newest {@code limit} reviews, newest first.
+     */
+    List<Review> latest(int limit) {
+        int size = Math.min(limit, ids.length);
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Review review = new Review();
+            review.setId(ids[i]);
+            review.setProductId(productId);
+            review.setUserId(userIds[i]);
+            review.setRating((int) ratings[i]);
+            review.setComment(comments[i]);
+            review.setReviewDate(LocalDateTime.ofEpochSecond(dates[i], 0, ZoneOffset.UTC));
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    ProductRatingSummary summary() {
+        Map<String, Long> stars = new LinkedHashMap<>();
+        for (int rating = ProductRatingSummary.MIN_RATING; rating <= ProductRatingSummary.MAX_RATING; rating++) {
+            stars.put(String.valueOf(rating), histogram[rating - 1]);
+        }
+        return new ProductRatingSummary(productId, count, sum, stars, lastReviewDate);
+    }
+
+    private static long epochSeconds(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+}
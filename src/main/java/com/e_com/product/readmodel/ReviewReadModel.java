@@ -0,0 +1,240 @@
+package com.e_com.product.readmodel;
+
+import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.model.CursorPage;
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.Review;
+import com.e_com.product.service.RatingSummaryService;
+import com.e_com.product.util.CursorCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product review views built from {@code review-added-events}: rating totals and the newest
+ * reviews, enough to answer the first page of a newest-first listing and the rating summary
+ * without a Mongo query.
+ * <p>
+ * Every node keeps its own views in memory, so every node reads every partition of the topic
+ * from its start on each startup, in batches. Partitions are assigned rather than subscribed, so
+ * no node joins a consumer group; the one fixed group id only names the offsets the container
+ * commits, which are never read back. Events may arrive in any order and are de-duplicated per
+ * product on a 64-bit hash of their review id, kept in a primitive set next to the product's view:
+ * between 11 and 22 bytes per review applied (one {@code long} slot in a table kept between 3/8
+ * and 3/4 full) and at least 64 bytes per product, so a million reviews take at most about 22 MB
+ * plus the per-product minimum. Two review ids of one product
+ * sharing a hash would drop the second review; the view then holds fewer reviews than Mongo and
+ * is never answered from, so a collision costs a fallback, never a wrong answer.
+ * <p>
+ * Reads are answered from the views only once the consumer has caught up with the topic, and only
+ * for products whose view holds every review stored in Mongo, as counted by the rating summary;
+ * the topic misses reviews stored before events were published. Until then callers fall back to
+ * Mongo. Rebuilding clears the views and replays the topic from the start.
+ */
+@Slf4j
+@Component
+public class ReviewReadModel extends AbstractConsumerSeekAware {
+
+    private final ObjectMapper objectMapper;
+    private final RatingSummaryService ratingSummaryService;
+    private final int latestLimit;
+    private final LongObjectStore<ProductReviewView> views;
+    // Products whose view was found to hold every stored review; it keeps doing so as events arrive
+    private final LongObjectStore<Boolean> completeViews;
+    // Hashes of the review ids applied to each product's view, so redeliveries and replays are
+    // skipped whatever their order; like the view, only written by the thread owning the partition
+    private final LongObjectStore<LongHashSet> appliedReviews;
+
+    private volatile boolean caughtUp;
+    private volatile boolean rebuildRequested;
+
+    private final AtomicLong reviewsHeld = new AtomicLong();
+    private final LongAdder eventsApplied = new LongAdder();
+    private final LongAdder duplicatesSkipped = new LongAdder();
+    private final LongAdder unreadableEvents = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReviewReadModel(ObjectMapper objectMapper,
+                           RatingSummaryService ratingSummaryService,
+                           @Value("${review.read-model.latest-per-product:20}") int latestLimit,
+                           @Value("${review.read-model.expected-products:100000}") int expectedProducts) {
+        this.objectMapper = objectMapper;
+        this.ratingSummaryService = ratingSummaryService;
+        this.latestLimit = latestLimit;
+        this.views = new LongObjectStore<>(expectedProducts);
+        this.completeViews = new LongObjectStore<>(expectedProducts);
+        this.appliedReviews = new LongObjectStore<>(expectedProducts);
+    }
+
+    // Assigns partitions 0 to review.events.partitions - 1, the count the topic is created with
+    @KafkaListener(id = "review-read-model",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${review.events.topic:review-added-events}",
+                    partitions = "0-#{${review.events.partitions:6} - 1}",
+                    partitionOffsets = @PartitionOffset(partition = "*", initialOffset = "0")),
+            groupId = "${spring.application.name}-review-read-model",
+            autoStartup = "${review.read-model.enabled:true}",
+            batch = "true",
+            properties = "max.poll.records=1000")
+    public void onReviewEvents(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        if (rebuildRequested) {
+            // Seek on the consumer thread so no batch polled before the rebuild lands in the new views
+            startRebuild(consumer.assignment(), () -> consumer.seekToBeginning(consumer.assignment()));
+            return;
+        }
+        records.forEach(this::apply);
+        if (!caughtUp && consumer.assignment().stream()
+                .allMatch(partition -> consumer.currentLag(partition).orElse(-1) == 0)) {
+            markCaughtUp();
+        }
+    }
+
+    // Idle events only come once a poll finds nothing new, i.e. every partition has been read to its end
+    @Override
+    public void onIdleContainer(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (rebuildRequested) {
+            startRebuild(assignments.keySet(), () -> callback.seekToBeginning(assignments.keySet()));
+        } else if (!caughtUp) {
+            markCaughtUp();
+        }
+    }
+
+    /**
+     * Clears the views and replays the topic from its start. The work happens on the consumer
+     * thread with its next batch or idle event; reads fall back to Mongo until the replay catches up.
+     */
+    public void rebuild() {
+        rebuildRequested = true;
+    }
+
+    /**
+     * First page of a product's newest-first listing, or empty when the views cannot answer it.
+     */
+    public Optional<CursorPage<Review>> findLatest(Long productId, int size) {
+        ProductReviewView view = completeView(productId);
+        // The view can answer only if it holds the whole page, or every review the product has
+        if (view == null || (size > view.getLatestSize() && view.getCount() > view.getLatestSize())) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        List<Review> items = view.latest(size);
+        String nextCursor = view.getCount() > items.size()
+                ? CursorCodec.encode(items.get(items.size() - 1).getReviewDate(), items.get(items.size() - 1).getId())
+                : null;
+        return Optional.of(new CursorPage<>(items, nextCursor));
+    }
+
+    public Optional<ProductRatingSummary> findSummary(Long productId) {
+        ProductReviewView view = completeView(productId);
+        if (view == null) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(view.summary());
+    }
+
+    public ReviewReadModelStats getStats() {
+        return new ReviewReadModelStats(caughtUp, views.size(), reviewsHeld.get(), eventsApplied.sum(),
+                duplicatesSkipped.sum(), unreadableEvents.sum(), rebuilds.sum(), hits.sum(), fallbacks.sum());
+    }
+
+    void apply(ConsumerRecord<String, String> record) {
+        ReviewAddedEvent event;
+        try {
+            event = objectMapper.readValue(record.value(), ReviewAddedEvent.class);
+        } catch (Exception e) {
+            unreadableEvents.increment();
+            log.warn("Ignoring unreadable review event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+        if (event.getProductId() == null || event.getReviewId() == null || event.getReviewDate() == null
+                || event.getRating() == null || event.getRating() < ProductRatingSummary.MIN_RATING
+                || event.getRating() > ProductRatingSummary.MAX_RATING) {
+            unreadableEvents.increment();
+            return;
+        }
+        apply(event);
+    }
+
+    // Events are keyed by product, so each product's view is only ever written by the one consumer
+    // thread that owns its partition and reading then replacing it needs no lock
+    void apply(ReviewAddedEvent event) {
+        long productId = event.getProductId();
+        LongHashSet applied = appliedReviews.get(productId);
+        if (applied == null) {
+            applied = new LongHashSet(1);
+            appliedReviews.put(productId, applied);
+        }
+        if (!applied.add(reviewIdHash(event.getReviewId()))) {
+            duplicatesSkipped.increment();
+            return;
+        }
+        ProductReviewView view = views.get(productId);
+        if (view == null) {
+            view = ProductReviewView.empty(productId);
+        }
+        ProductReviewView updated = view.apply(event, latestLimit);
+        views.put(productId, updated);
+        reviewsHeld.addAndGet(updated.getLatestSize() - view.getLatestSize());
+        eventsApplied.increment();
+    }
+
+    void markCaughtUp() {
+        caughtUp = true;
+        log.info("Review read model caught up: {} products, {} events applied", views.size(), eventsApplied.sum());
+    }
+
+    // The product's view once the consumer has caught up, if it holds as many reviews as Mongo
+    private ProductReviewView completeView(Long productId) {
+        ProductReviewView view = caughtUp && productId != null ? views.get(productId) : null;
+        if (view == null || completeViews.get(productId) != null) {
+            return view;
+        }
+        // Checked until it passes: a view can also trail Mongo because its newest events are still on the way
+        if (view.getCount() < ratingSummaryService.getSummary(productId).getCount()) {
+            return null;
+        }
+        completeViews.put(productId, Boolean.TRUE);
+        return view;
+    }
+
+    // 64-bit FNV-1a over the id's characters, with the high bits folded into the low ones the set
+    // picks slots by; 0 marks a free slot in the set, so it is moved to 1
+    static long reviewIdHash(String reviewId) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < reviewId.length(); i++) {
+            hash = (hash ^ reviewId.charAt(i)) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 32;
+        return hash != 0 ? hash : 1;
+    }
+
+    private void startRebuild(Object partitions, Runnable seekToBeginning) {
+        rebuildRequested = false;
+        caughtUp = false;
+        views.clear();
+        completeViews.clear();
+        appliedReviews.clear();
+        reviewsHeld.set(0);
+        rebuilds.increment();
+        seekToBeginning.run();
+        log.info("Rebuilding the review read model from the start of {}", partitions);
+    }
+}
@@ -0,0 +1,23 @@
+package com.e_com.product.readmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewReadModelStats {
+    // False while the view is still replaying the topic; reads go to Mongo until then
+    private boolean caughtUp;
+    private int products;
+    private long reviewsHeld;
+    private long eventsApplied;
+    // Redeliveries and outbox replays that were already applied
+    private long duplicatesSkipped;
+    private long unreadableEvents;
+    private long rebuilds;
+    // Listing and summary reads answered from the view, and ones passed on to Mongo
+    private long hits;
+    private long fallbacks;
+}
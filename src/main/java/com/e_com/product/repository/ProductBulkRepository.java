@@ -0,0 +1,85 @@
+package com.e_com.product.repository;
+
+import com.e_com.product.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based product writes for bulk imports. Hibernate cannot batch inserts of IDENTITY entities,
+ * so these go straight through JDBC: one batch per call, which the MySQL driver rewrites into
+ * multi-row INSERTs ({@code rewriteBatchedStatements=true}) while the table keeps assigning ids.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    private static final String INSERT_SQL =
+            "insert into products (name, description, price, category, version) values (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * The subset of the given names that already belong to a product, in one query.
+     */
+    public Set<String> findExistingNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        List<String> existing = namedParameterJdbcTemplate.queryForList(
+                "select name from products where name in (:names)", Map.of("names", names), String.class);
+        return new HashSet<>(existing);
+    }
+
+    /**
+     * Inserts the products as one JDBC batch and sets the generated id on each of them.
+     */
+    public void insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Product product = products.get(i);
+                        ps.setString(1, product.getName());
+                        ps.setString(2, product.getDescription());
+                        if (product.getPrice() != null) {
+                            ps.setDouble(3, product.getPrice());
+                        } else {
+                            ps.setNull(3, Types.DOUBLE);
+                        }
+                        ps.setString(4, product.getCategory());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return products.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != products.size()) {
+            throw new IllegalStateException("Expected " + products.size() + " generated ids but got " + keys.size());
+        }
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -1,10 +1,46 @@
 package com.e_com.product.repository;
 
 import com.e_com.product.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Rows fetched per round trip while streaming; needs useCursorFetch=true on the MySQL URL
+    int STREAM_FETCH_SIZE = 500;
+
     Optional<Product> findByName(String name);
+
+    // Keyset page: the next rows after the given id, in id order
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    /**
+     * Overwrites the product and bumps its version in one statement, only if it is still at
+     * {@code version}. Returns the number of rows changed: 0 when the product is missing or was
+     * changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.name = :#{#product.name}, p.description = :#{#product.description}, " +
+            "p.price = :#{#product.price}, p.category = :#{#product.category}, p.version = p.version + 1 " +
+            "where p.id = :id and p.version = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") long version, @Param("product") Product product);
 }
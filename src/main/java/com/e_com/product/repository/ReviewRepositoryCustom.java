@@ -0,0 +1,19 @@
+package com.e_com.product.repository;
+
+import com.e_com.product.model.Review;
+import com.e_com.product.model.ReviewSort;
+
+import java.util.List;
+
+public interface ReviewRepositoryCustom {
+
+    String PRODUCT_ID = "productId";
+    String USER_ID = "userId";
+
+    /**
+     * Reads one keyset page of reviews whose {@code ownerField} equals {@code ownerId}.
+     *
+     * @param after last review of the previous page (only the sort fields are used), or null for the first page
+     */
+    List<Review> findPage(String ownerField, Long ownerId, ReviewSort sort, Review after, int limit);
+}
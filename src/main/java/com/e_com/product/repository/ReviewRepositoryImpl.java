@@ -0,0 +1,49 @@
+package com.e_com.product.repository;
+
+import com.e_com.product.model.Review;
+import com.e_com.product.model.ReviewSort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Review> findPage(String ownerField, Long ownerId, ReviewSort sort, Review after, int limit) {
+        Criteria criteria = Criteria.where(ownerField).is(ownerId);
+        if (after != null) {
+            criteria = criteria.andOperator(after(sort, after));
+        }
+        Query query = new Query(criteria)
+                .with(sortFor(sort))
+                .limit(limit);
+        // Only the fields the API returns, so Mongo can skip mapping metadata such as _class
+        query.fields().include("productId", "userId", "rating", "comment", "reviewDate");
+        return mongoTemplate.find(query, Review.class);
+    }
+
+    private static Sort sortFor(ReviewSort sort) {
+        Sort newest = Sort.by(Sort.Direction.DESC, "reviewDate", "id");
+        return sort == ReviewSort.RATING ? Sort.by(Sort.Direction.DESC, "rating").and(newest) : newest;
+    }
+
+    // Rows strictly after the anchor in descending (rating,) reviewDate, id order
+    private static Criteria after(ReviewSort sort, Review anchor) {
+        Criteria olderThanAnchor = new Criteria().orOperator(
+                Criteria.where("reviewDate").lt(anchor.getReviewDate()),
+                Criteria.where("reviewDate").is(anchor.getReviewDate()).and("id").lt(anchor.getId()));
+        if (sort != ReviewSort.RATING) {
+            return olderThanAnchor;
+        }
+        return new Criteria().orOperator(
+                Criteria.where("rating").lt(anchor.getRating()),
+                new Criteria().andOperator(Criteria.where("rating").is(anchor.getRating()), olderThanAnchor));
+    }
+}
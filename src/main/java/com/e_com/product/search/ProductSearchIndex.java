@@ -0,0 +1,392 @@
+package com.e_com.product.search;
+
+import com.e_com.product.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names and descriptions, ranked with BM25.
+ * <p>
+ * Documents are addressed by dense internal ids so per-document data lives in primitive arrays.
+ * Updates append a new document and tombstone the old one; tombstones are compacted away once
+ * they make up a quarter of the index. Reads take a shared lock and writes an exclusive one.
+ */
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Name tokens are indexed this many times so title matches outrank description matches
+    private static final int NAME_BOOST = 2;
+    private static final int MIN_DELETES_BEFORE_COMPACTION = 1_000;
+    private static final int NO_CATEGORY = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Score buffers are pooled rather than thread-local: on virtual threads every request runs on a
+    // fresh thread, so a thread-local buffer would be a catalog-sized allocation per query
+    private final Queue<ScoreAccumulator> accumulators = new ConcurrentLinkedQueue<>();
+    private final int maxPooledAccumulators = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByProductId = new HashMap<>();
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+
+    private long[] productIds = new long[1024];
+    private int[] categories = new int[1024];
+    private double[] prices = new double[1024];
+    private int[] lengths = new int[1024];
+    private BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            addInternal(product);
+            compactIfFragmented();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            compactIfFragmented();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query. Blank text matches every product and orders by product id; otherwise any
+     * query term matches and hits are ordered by BM25 score.
+     *
+     * @param offset number of ranked hits to skip
+     * @param limit  maximum number of hits to return
+     */
+    public SearchResult search(String text, String category, Double minPrice, Double maxPrice, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(text)));
+        lock.readLock().lock();
+        try {
+            int categoryFilter = category == null ? NO_CATEGORY : categoryOrdinals.getOrDefault(category, -2);
+            double min = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+            double max = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+            int keep = offset + limit;
+
+            long[] facetCounts = new long[categoryNames.size()];
+            PriorityQueue<SearchResult.Hit> top = new PriorityQueue<>(Math.max(1, keep), worstFirst(terms.isEmpty()));
+            long total = 0;
+
+            if (terms.isEmpty()) {
+                for (int doc = 0; doc < docCount; doc++) {
+                    if (!deleted.get(doc) && accept(doc, categoryFilter, min, max, facetCounts)) {
+                        total++;
+                        offer(top, keep, true, productIds[doc], 0);
+                    }
+                }
+            } else {
+                ScoreAccumulator accumulator = accumulators.poll();
+                if (accumulator == null) {
+                    accumulator = new ScoreAccumulator();
+                }
+                accumulator.ensureCapacity(docCount);
+                try {
+                    scoreTerms(terms, accumulator);
+                    for (int i = 0; i < accumulator.touchedCount; i++) {
+                        int doc = accumulator.touched[i];
+                        if (accept(doc, categoryFilter, min, max, facetCounts)) {
+                            total++;
+                            offer(top, keep, false, productIds[doc], accumulator.scores[doc]);
+                        }
+                    }
+                } finally {
+                    accumulator.reset();
+                    // Unsynchronized size check; overshooting the cap by a few buffers is harmless
+                    if (accumulators.size() < maxPooledAccumulators) {
+                        accumulators.offer(accumulator);
+                    }
+                }
+            }
+
+            List<SearchResult.Hit> ranked = new ArrayList<>(top);
+            ranked.sort(worstFirst(terms.isEmpty()).reversed());
+            List<SearchResult.Hit> page = offset >= ranked.size()
+                    ? List.of()
+                    : new ArrayList<>(ranked.subList(offset, ranked.size()));
+            return new SearchResult(total, page, facets(facetCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the index without tombstoned documents.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                remap[doc] = deleted.get(doc) ? -1 : live++;
+            }
+            long[] newProductIds = new long[Math.max(1024, live)];
+            int[] newCategories = new int[newProductIds.length];
+            double[] newPrices = new double[newProductIds.length];
+            int[] newLengths = new int[newProductIds.length];
+            docByProductId.clear();
+            for (int doc = 0; doc < docCount; doc++) {
+                int target = remap[doc];
+                if (target >= 0) {
+                    newProductIds[target] = productIds[doc];
+                    newCategories[target] = categories[doc];
+                    newPrices[target] = prices[doc];
+                    newLengths[target] = lengths[doc];
+                    docByProductId.put(productIds[doc], target);
+                }
+            }
+            postings.values().removeIf(list -> list.remap(remap) == 0);
+
+            productIds = newProductIds;
+            categories = newCategories;
+            prices = newPrices;
+            lengths = newLengths;
+            deleted = new BitSet();
+            docCount = live;
+            deletedCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfFragmented() {
+        if (deletedCount >= MIN_DELETES_BEFORE_COMPACTION && deletedCount * 4 > docCount) {
+            compact();
+        }
+    }
+
+    private void addInternal(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : TextAnalyzer.tokenize(product.getName())) {
+            frequencies.merge(token, NAME_BOOST, Integer::sum);
+        }
+        for (String token : TextAnalyzer.tokenize(product.getDescription())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        int doc = docCount++;
+        ensureDocCapacity(docCount);
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        productIds[doc] = product.getId();
+        categories[doc] = categoryOrdinal(product.getCategory());
+        prices[doc] = product.getPrice() == null ? Double.NaN : product.getPrice();
+        lengths[doc] = length;
+        totalLength += length;
+        docByProductId.put(product.getId(), doc);
+    }
+
+    private void removeInternal(Long productId) {
+        Integer doc = docByProductId.remove(productId);
+        if (doc != null) {
+            deleted.set(doc);
+            deletedCount++;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    private void scoreTerms(List<String> terms, ScoreAccumulator accumulator) {
+        int liveDocs = docCount - deletedCount;
+        double averageLength = liveDocs == 0 ? 1 : Math.max(1, (double) totalLength / liveDocs);
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            // Document frequency still counts tombstones until the next compaction
+            double idf = Math.log(1 + (Math.max(0, liveDocs - list.size) + 0.5) / (list.size + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.docs[i];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                int tf = list.frequencies[i];
+                double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                accumulator.add(doc, idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+    }
+
+    private boolean accept(int doc, int categoryFilter, double min, double max, long[] facetCounts) {
+        double price = prices[doc];
+        if ((min != Double.NEGATIVE_INFINITY || max != Double.POSITIVE_INFINITY)
+                && (Double.isNaN(price) || price < min || price > max)) {
+            return false;
+        }
+        int docCategory = categories[doc];
+        if (docCategory != NO_CATEGORY) {
+            facetCounts[docCategory]++;
+        }
+        return categoryFilter == NO_CATEGORY || docCategory == categoryFilter;
+    }
+
+    private static void offer(PriorityQueue<SearchResult.Hit> top, int keep, boolean browse,
+                              long productId, double score) {
+        if (top.size() < keep) {
+            top.add(new SearchResult.Hit(productId, score));
+            return;
+        }
+        SearchResult.Hit worst = top.peek();
+        if (worst == null) {
+            return;
+        }
+        // Same ordering as worstFirst, checked inline to avoid allocating a hit per candidate
+        boolean better = browse
+                ? productId < worst.getProductId()
+                : score > worst.getScore() || (score == worst.getScore() && productId < worst.getProductId());
+        if (better) {
+            top.poll();
+            top.add(new SearchResult.Hit(productId, score));
+        }
+    }
+
+    // Orders hits from worst to best: lower score first, then higher product id first
+    private static Comparator<SearchResult.Hit> worstFirst(boolean browse) {
+        Comparator<SearchResult.Hit> byProductIdDescending =
+                Comparator.comparingLong(SearchResult.Hit::getProductId).reversed();
+        if (browse) {
+            return byProductIdDescending;
+        }
+        return Comparator.comparingDouble(SearchResult.Hit::getScore).thenComparing(byProductIdDescending);
+    }
+
+    private Map<String, Long> facets(long[] facetCounts) {
+        List<Integer> ordinals = new ArrayList<>();
+        for (int i = 0; i < facetCounts.length; i++) {
+            if (facetCounts[i] > 0) {
+                ordinals.add(i);
+            }
+        }
+        ordinals.sort((a, b) -> Long.compare(facetCounts[b], facetCounts[a]));
+        Map<String, Long> facets = new LinkedHashMap<>();
+        for (int ordinal : ordinals) {
+            facets.put(categoryNames.get(ordinal), facetCounts[ordinal]);
+        }
+        return facets;
+    }
+
+    private int categoryOrdinal(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        return categoryOrdinals.computeIfAbsent(category, name -> {
+            categoryNames.add(name);
+            return categoryNames.size() - 1;
+        });
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= productIds.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newLength);
+        categories = Arrays.copyOf(categories, newLength);
+        prices = Arrays.copyOf(prices, newLength);
+        lengths = Arrays.copyOf(lengths, newLength);
+    }
+
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        // Drops tombstoned documents and renumbers the rest; returns the remaining size
+        private int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int target = remap[docs[i]];
+                if (target >= 0) {
+                    docs[kept] = target;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+
+    /**
+     * Pooled score buffer indexed by document id, reset after every query by walking only
+     * the documents that were touched.
+     */
+    private static final class ScoreAccumulator {
+
+        private double[] scores = new double[0];
+        private int[] touched = new int[16];
+        private int touchedCount;
+
+        private void ensureCapacity(int docCount) {
+            if (scores.length < docCount) {
+                scores = new double[docCount];
+            }
+        }
+
+        private void add(int doc, double score) {
+            if (scores[doc] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = doc;
+            }
+            scores[doc] += score;
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0;
+            }
+            touchedCount = 0;
+        }
+    }
+}
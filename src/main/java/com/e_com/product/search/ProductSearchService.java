@@ -0,0 +1,143 @@
+package com.e_com.product.search;
+
+import com.e_com.product.event.ProductChangedEvent;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductLookupResult;
+import com.e_com.product.model.ProductSearchResponse;
+import com.e_com.product.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the in-memory {@link ProductSearchIndex}: builds it from the database once the application
+ * is up, keeps it current from {@link ProductChangedEvent}s and answers catalog searches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private final ProductService productService;
+
+    private final Object indexMonitor = new Object();
+    private final List<ProductChangedEvent> changesDuringBuild = new ArrayList<>();
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+    private volatile boolean ready;
+    private boolean building;
+
+    @Value("${product.search.max-page-size:100}")
+    private int maxPageSize;
+
+    // Deepest hit (page * size) a query may reach
+    @Value("${product.search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexOnStartup() {
+        new SimpleAsyncTaskExecutor("search-index-").execute(this::rebuildIndex);
+    }
+
+    /**
+     * Streams the whole catalog into a fresh index and swaps it in. Changes that arrive while the
+     * build runs are replayed on top, so they win over the rows read by the build.
+     */
+    public void rebuildIndex() {
+        synchronized (indexMonitor) {
+            if (building) {
+                return;
+            }
+            building = true;
+        }
+        long start = System.currentTimeMillis();
+        ProductSearchIndex fresh = new ProductSearchIndex();
+        try {
+            productService.streamAllProducts(fresh::index);
+            fresh.compact();
+        } catch (RuntimeException e) {
+            log.error("Building the product search index failed", e);
+            synchronized (indexMonitor) {
+                changesDuringBuild.forEach(change -> apply(index, change));
+                changesDuringBuild.clear();
+                building = false;
+            }
+            return;
+        }
+        synchronized (indexMonitor) {
+            changesDuringBuild.forEach(change -> apply(fresh, change));
+            changesDuringBuild.clear();
+            index = fresh;
+            building = false;
+            ready = true;
+        }
+        log.info("Product search index built with {} products in {} ms",
+                fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    // Applied once the write has committed, so search never shows a change that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (indexMonitor) {
+            if (building) {
+                changesDuringBuild.add(event);
+                return;
+            }
+            apply(index, event);
+        }
+    }
+
+    public ProductSearchResponse search(String query, String category, Double minPrice, Double maxPrice,
+                                        int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        if ((long) page * size + size > maxResultWindow) {
+            throw new IllegalArgumentException("Results beyond the first " + maxResultWindow + " hits are not available");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        if (!ready) {
+            throw new IllegalStateException("Product search index is still being built");
+        }
+
+        SearchResult result = index.search(query, category, minPrice, maxPrice, page * size, size);
+        List<Long> productIds = result.getHits().stream()
+                .map(SearchResult.Hit::getProductId)
+                .toList();
+        Map<Long, Product> products = new HashMap<>();
+        for (ProductLookupResult lookup : productService.getProductsByIds(productIds)) {
+            if (lookup.isFound()) {
+                products.put(lookup.getId(), lookup.getProduct());
+            }
+        }
+
+        // A product deleted between the index read and the lookup is simply left out
+        List<ProductSearchResponse.Hit> hits = result.getHits().stream()
+                .filter(hit -> products.containsKey(hit.getProductId()))
+                .map(hit -> new ProductSearchResponse.Hit(products.get(hit.getProductId()), hit.getScore()))
+                .toList();
+        return new ProductSearchResponse(result.getTotal(), page, size, hits, result.getCategoryFacets());
+    }
+
+    private static void apply(ProductSearchIndex target, ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            target.remove(event.getProductId());
+        } else {
+            target.index(event.getProduct());
+        }
+    }
+}
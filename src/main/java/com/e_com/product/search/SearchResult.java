@@ -0,0 +1,28 @@
+package com.e_com.product.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+
+    // Matches after every filter, before paging
+    private long total;
+    private List<Hit> hits;
+    // Match counts per category with the price filter applied but not the category filter
+    private Map<String, Long> categoryFacets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private long productId;
+        private double score;
+    }
+}
@@ -0,0 +1,20 @@
+package com.e_com.product.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Verified contents of a bearer token. Instances are shared between requests through the
+ * verified-token cache, so they are immutable.
+ *
+ * @param expiresAt token expiry, never null: tokens without an {@code exp} claim are rejected
+ *                  before a principal is made, and the cache relies on it to expire entries
+ */
+public record JwtPrincipal(String subject, List<String> roles, Instant expiresAt) {
+
+    public JwtPrincipal {
+        Objects.requireNonNull(expiresAt, "expiresAt");
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
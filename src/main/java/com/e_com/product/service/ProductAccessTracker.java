@@ -0,0 +1,89 @@
+package com.e_com.product.service;
+
+import com.e_com.product.cache.FrequencySketch;
+import com.e_com.product.config.ProductCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Counts product reads in a per-node {@link FrequencySketch} and periodically folds the hottest
+ * ids into a Redis sorted set shared by the cluster, which the startup warm-up reads back.
+ * <p>
+ * Every flush first scales the whole ranking down by the configured decay and then adds this
+ * node's counts since the previous flush, so the ranking tracks recent traffic. Nodes flush
+ * independently, so with more nodes old counts fade faster; only the order matters.
+ */
+@Slf4j
+@Component
+public class ProductAccessTracker {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductCacheProperties.Warmup properties;
+    private final FrequencySketch sketch;
+
+    public ProductAccessTracker(StringRedisTemplate redisTemplate, ProductCacheProperties cacheProperties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = cacheProperties.getWarmup();
+        this.sketch = new FrequencySketch(properties.getSketchWidth(), properties.getTopN());
+    }
+
+    public void recordAccess(Long productId) {
+        if (productId != null) {
+            sketch.increment(productId);
+        }
+    }
+
+    public void recordAccess(List<Long> productIds) {
+        productIds.forEach(this::recordAccess);
+    }
+
+    @Scheduled(fixedDelayString = "${product.cache.warmup.flush-interval:1m}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<Long, Long> counts = sketch.drain();
+        if (counts.isEmpty()) {
+            return;
+        }
+        byte[] key = properties.getRankingKey().getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                fold(connection, key, counts);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not flush {} product access counts to Redis: {}", counts.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * The hottest product ids across the cluster, hottest first.
+     */
+    public List<Long> hottestProductIds(int limit) {
+        Set<String> members = redisTemplate.opsForZSet().reverseRange(properties.getRankingKey(), 0, limit - 1);
+        if (members == null) {
+            return List.of();
+        }
+        return members.stream().map(Long::valueOf).toList();
+    }
+
+    private void fold(RedisConnection connection, byte[] key, Map<Long, Long> counts) {
+        connection.zSetCommands().zUnionStore(key, Aggregate.SUM, Weights.of(properties.getDecay()), key);
+        counts.forEach((productId, count) -> connection.zSetCommands()
+                .zIncrBy(key, count, String.valueOf(productId).getBytes(StandardCharsets.UTF_8)));
+        // Keep some slack below the warm-up size so ids on the edge can still climb in
+        connection.zSetCommands().zRemRange(key, 0, -(2L * properties.getTopN()) - 1);
+    }
+}
@@ -0,0 +1,124 @@
+package com.e_com.product.service;
+
+import com.e_com.product.config.ProductCacheProperties;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductLookupResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the hottest products, as ranked by {@link ProductAccessTracker}, into both cache tiers
+ * before the instance takes traffic.
+ * <p>
+ * Runs as an {@link ApplicationRunner}: Spring Boot only moves readiness to ACCEPTING_TRAFFIC
+ * once every runner has returned, so the readiness probe stays down until the warm-up finishes
+ * or its timeout passes. Ids are loaded in batches through
+ * {@link ProductService#getProductsByIds}, a fixed number at a time, so each batch costs one
+ * Redis multi-get, one IN query for the misses and one pipelined cache write. The found products
+ * are then serialized into the response body cache that {@code GET /api/products/{id}} reads,
+ * with one more pipelined write.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.cache.warmup.enabled", matchIfMissing = true)
+public class ProductCacheWarmer implements ApplicationRunner {
+
+    private final ProductService productService;
+    private final ProductJsonService productJsonService;
+    private final ProductAccessTracker accessTracker;
+    private final ProductCacheProperties.Warmup properties;
+    private final int batchSize;
+
+    private volatile ProductCacheWarmupStats stats;
+
+    public ProductCacheWarmer(ProductService productService,
+                              ProductJsonService productJsonService,
+                              ProductAccessTracker accessTracker,
+                              ProductCacheProperties cacheProperties,
+                              @Value("${product.batch.max-size:200}") int batchSize) {
+        this.productService = productService;
+        this.productJsonService = productJsonService;
+        this.accessTracker = accessTracker;
+        this.properties = cacheProperties.getWarmup();
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    public ProductCacheWarmupStats warmUp() {
+        long start = System.nanoTime();
+        List<Long> ids;
+        try {
+            ids = accessTracker.hottestProductIds(properties.getTopN());
+        } catch (RuntimeException e) {
+            log.warn("Skipping product cache warm-up, the access ranking is unavailable: {}", e.getMessage());
+            ids = List.of();
+        }
+
+        AtomicInteger warmed = new AtomicInteger();
+        boolean timedOut = false;
+        if (!ids.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, properties.getConcurrency()), new CustomizableThreadFactory("cache-warmup-"));
+            for (List<Long> batch : partition(ids, batchSize)) {
+                executor.execute(() -> warmBatch(batch, warmed));
+            }
+            executor.shutdown();
+            try {
+                timedOut = !executor.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                timedOut = true;
+            }
+            if (timedOut) {
+                executor.shutdownNow();
+            }
+        }
+
+        stats = new ProductCacheWarmupStats(ids.size(), warmed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timedOut);
+        log.info("Product cache warm-up {}: {} of {} hot products cached in {} ms",
+                timedOut ? "timed out" : "finished", stats.getWarmed(), stats.getRequested(), stats.getDurationMillis());
+        return stats;
+    }
+
+    public ProductCacheWarmupStats getStats() {
+        return stats;
+    }
+
+    private void warmBatch(List<Long> batch, AtomicInteger warmed) {
+        try {
+            List<Product> found = productService.getProductsByIds(batch).stream()
+                    .filter(ProductLookupResult::isFound)
+                    .map(ProductLookupResult::getProduct)
+                    .toList();
+            productJsonService.cacheAll(found);
+            warmed.addAndGet(found.size());
+        } catch (RuntimeException e) {
+            log.warn("Product cache warm-up batch of {} ids failed: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static List<List<Long>> partition(List<Long> ids, int size) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += size) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + size)));
+        }
+        return batches;
+    }
+}
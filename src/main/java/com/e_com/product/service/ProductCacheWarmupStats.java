@@ -0,0 +1,18 @@
+package com.e_com.product.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCacheWarmupStats {
+    // Hot ids read from the ranking
+    private int requested;
+    // Of those, products that exist and are now in both cache tiers
+    private int warmed;
+    private long durationMillis;
+    // True when readiness was released before every batch had finished
+    private boolean timedOut;
+}
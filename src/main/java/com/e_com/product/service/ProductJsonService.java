@@ -0,0 +1,84 @@
+package com.e_com.product.service;
+
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.SerializedProduct;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Product response bodies, serialized by the same mapper Spring MVC uses and cached as bytes, so
+ * a cache hit on {@code GET /api/products/{id}} skips both the Redis decode into a {@link Product}
+ * and the JSON encode back out. Entries are evicted alongside the products cache by the write
+ * methods of {@link ProductService}.
+ */
+@Service
+public class ProductJsonService {
+
+    public static final String PRODUCT_JSON_CACHE = "product-json";
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final TwoTierCacheManager cacheManager;
+    private final int gzipThreshold;
+
+    public ProductJsonService(ProductService productService, ObjectMapper objectMapper, TwoTierCacheManager cacheManager,
+                              @Value("${product.response.gzip-threshold:512}") int gzipThreshold) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.gzipThreshold = gzipThreshold;
+    }
+
+    // Misses go through the products cache, so a cold body costs one encode rather than a query
+    @Cacheable(value = PRODUCT_JSON_CACHE, key = "#id", sync = true)
+    public Optional<SerializedProduct> getSerializedProduct(Long id) {
+        return productService.getProductById(id).map(this::serialize);
+    }
+
+    /**
+     * Caches the bodies of products the caller already holds, as one batch write.
+     */
+    public void cacheAll(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        Map<Long, SerializedProduct> bodies = new LinkedHashMap<>();
+        products.forEach(product -> bodies.put(product.getId(), serialize(product)));
+        cacheManager.getCache(PRODUCT_JSON_CACHE).putAll(bodies);
+    }
+
+    SerializedProduct serialize(Product product) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+        return new SerializedProduct(product.getVersion(), json, gzipThreshold > 0 && json.length >= gzipThreshold
+                ? gzip(json) : null);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Bodies that do not shrink are sent as they are
+        return buffer.size() < json.length ? buffer.toByteArray() : null;
+    }
+}
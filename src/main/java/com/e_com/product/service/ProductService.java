@@ -1,55 +1,230 @@
 package com.e_com.product.service;
 
+import com.e_com.product.cache.TwoTierCache;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.datasource.ReplicaRoutingDataSource;
+import com.e_com.product.event.ProductChangedEvent;
+import com.e_com.product.model.CursorPage;
 import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductLookupResult;
 import com.e_com.product.repository.ProductRepository;
+import com.e_com.product.util.CursorCodec;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    public static final String PRODUCTS_CACHE = "products";
+
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TwoTierCacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${product.listing.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${product.listing.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${product.batch.max-size:200}")
+    private int maxBatchSize;
 
-    @Cacheable(value = "products", key = "#id")
+    // sync = true routes misses through one coalesced loader per key. The load reads the primary:
+    // a replica still behind an update or delete would put the old row back into the cache for
+    // its whole TTL
+    @Cacheable(value = "products", key = "#id", sync = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return ReplicaRoutingDataSource.onPrimary(() -> productRepository.findById(id));
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    /**
+     * Looks up many products with one multi-key cache read, one IN query for the cache misses and
+     * one pipelined cache write-back. Results follow the request order, duplicates included.
+     */
+    public List<ProductLookupResult> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " product ids can be requested at once");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Product ids must not be null");
+        }
+        List<Long> distinctIds = ids.stream().distinct().toList();
+
+        TwoTierCache cache = cacheManager.getCache(PRODUCTS_CACHE);
+        List<Cache.ValueWrapper> cached = cache.getAll(distinctIds);
+        Map<Long, Product> products = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Cache.ValueWrapper wrapper = cached.get(i);
+            if (wrapper == null) {
+                misses.add(distinctIds.get(i));
+            } else if (wrapper.get() != null) {
+                // A cached null means the product is known not to exist
+                products.put(distinctIds.get(i), (Product) wrapper.get());
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, Product> loaded = new LinkedHashMap<>();
+            // Cached below, so read from the primary like getProductById
+            ReplicaRoutingDataSource.onPrimary(() -> productRepository.findAllById(misses))
+                    .forEach(product -> loaded.put(product.getId(), product));
+            cache.putAll(loaded);
+            products.putAll(loaded);
+        }
+
+        return ids.stream()
+                .map(id -> new ProductLookupResult(id, products.containsKey(id), products.get(id)))
+                .toList();
     }
 
-    @CachePut(value = "products", key = "#result.id")
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductsPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = cursor == null || cursor.isBlank() ? 0L : parseProductCursor(cursor);
+
+        // Fetch one extra row to find out whether another page exists
+        List<Product> rows = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Product> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new CursorPage<>(items, CursorCodec.encode(items.get(pageSize - 1).getId()));
+    }
+
+    /**
+     * Streams every product in id order to the given consumer. Rows are read with a bounded
+     * fetch size and detached once consumed, so memory stays flat regardless of table size.
+     * The rows come from the primary: exports and change-stream snapshots must not miss recent
+     * writes.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        ReplicaRoutingDataSource.onPrimary(() -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> {
+                    consumer.accept(product);
+                    entityManager.detach(product);
+                });
+            }
+            return null;
+        });
+    }
+
+    // Writes run in read-write transactions so their checks read the primary, not a lagging replica
+    // Every write also drops the product's cached response body, see ProductJsonService
+    @Transactional
+    @Caching(put = @CachePut(value = "products", key = "#result.id"),
+            evict = @CacheEvict(value = "product-json", key = "#result.id"))
     public Product createProduct(Product product) {
         // Check if product with same name already exists
         Optional<Product> existingProduct = productRepository.findByName(product.getName());
         if (existingProduct.isPresent()) {
             throw new IllegalArgumentException("Product with name '" + product.getName() + "' has already been created");
         }
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.CREATED, savedProduct.getId(), savedProduct));
+        return savedProduct;
     }
 
-    @CachePut(value = "products", key = "#product.id")
+    @Transactional
+    @Caching(put = @CachePut(value = "products", key = "#id"),
+            evict = @CacheEvict(value = "product-json", key = "#id"))
     public Product updateProduct(Long id, Product product) {
-        if (!productRepository.existsById(id)) {
-            throw new IllegalArgumentException("Product not found with id: " + id);
+        // Writing onto the stored row keeps its version, so the update is checked against it and bumps it
+        Product existingProduct = productRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
+        existingProduct.setName(product.getName());
+        existingProduct.setDescription(product.getDescription());
+        existingProduct.setPrice(product.getPrice());
+        existingProduct.setCategory(product.getCategory());
+        Product savedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.UPDATED, savedProduct.getId(), savedProduct));
+        return savedProduct;
+    }
+
+    /**
+     * Update guarded by the version the caller last saw (an {@code If-Match} ETag): one
+     * conditional UPDATE instead of a read followed by a write.
+     *
+     * @throws OptimisticLockingFailureException if the product has moved past {@code expectedVersion}
+     */
+    @Transactional
+    @Caching(put = @CachePut(value = "products", key = "#id"),
+            evict = @CacheEvict(value = "product-json", key = "#id"))
+    public Product updateProduct(Long id, long expectedVersion, Product product) {
+        if (productRepository.updateIfVersion(id, expectedVersion, product) == 0) {
+            // Only the failure path pays for telling a missing product from a stale version
+            if (!productRepository.existsById(id)) {
+                throw new IllegalArgumentException("Product not found with id: " + id);
+            }
+            throw new OptimisticLockingFailureException(
+                    "Product " + id + " has changed since version " + expectedVersion);
         }
-        product.setId(id);
-        return productRepository.save(product);
+        Product savedProduct = new Product(id, product.getName(), product.getDescription(), product.getPrice(),
+                product.getCategory(), expectedVersion + 1);
+        eventPublisher.publishEvent(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.UPDATED, savedProduct.getId(), savedProduct));
+        return savedProduct;
     }
 
-    @CacheEvict(value = "products", key = "#id")
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "products", key = "#id"),
+            @CacheEvict(value = "product-json", key = "#id")})
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new IllegalArgumentException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.ChangeType.DELETED, id, null));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private long parseProductCursor(String cursor) {
+        String[] parts = CursorCodec.decode(cursor, 1);
+        try {
+            return Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
     }
 }
@@ -0,0 +1,197 @@
+package com.e_com.product.service;
+
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.Review;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@link ProductRatingSummary} documents: one atomic increment per added review, plus an
+ * admin-triggered recomputation from the {@code reviews} collection that repairs drift (for
+ * example a review saved while the increment failed).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingSummaryService {
+
+    public static final String RATING_SUMMARIES_CACHE = "rating-summaries";
+
+    private static final String REVIEWS_COLLECTION = "reviews";
+    private static final String SUMMARIES_COLLECTION = "review_summaries";
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+
+    @Cacheable(value = RATING_SUMMARIES_CACHE, key = "#productId", sync = true)
+    public ProductRatingSummary getSummary(Long productId) {
+        ProductRatingSummary summary = mongoTemplate.findById(productId, ProductRatingSummary.class);
+        if (summary == null) {
+            return ProductRatingSummary.empty(productId);
+        }
+        // Stars nobody has given yet have no counter in the document
+        ProductRatingSummary.emptyHistogram().forEach(summary.getHistogram()::putIfAbsent);
+        return summary;
+    }
+
+    /**
+     * Folds one review into its product's summary with a single upsert, so concurrent reviews
+     * never lose an increment.
+     */
+    @CacheEvict(value = RATING_SUMMARIES_CACHE, key = "#review.productId")
+    public void recordReview(Review review) {
+        validateRating(review.getRating());
+        Update update = new Update()
+                .inc("count", 1L)
+                .inc("sum", (long) review.getRating())
+                .inc("histogram." + review.getRating(), 1L)
+                .max("lastUpdated", review.getReviewDate());
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(review.getProductId())),
+                update, ProductRatingSummary.class);
+    }
+
+    /**
+     * Folds a batch of reviews into their summaries with one upsert per product, sent as a single
+     * unordered bulk write, and evicts those products' cached summaries.
+     */
+    public void recordReviews(List<Review> reviews) {
+        Map<Long, Update> updates = new LinkedHashMap<>();
+        Map<Long, List<Review>> byProduct = new LinkedHashMap<>();
+        for (Review review : reviews) {
+            validateRating(review.getRating());
+            byProduct.computeIfAbsent(review.getProductId(), productId -> new ArrayList<>()).add(review);
+        }
+        // Update keeps one value per field, so each product's increments are summed first
+        byProduct.forEach((productId, productReviews) -> {
+            long[] histogram = new long[ProductRatingSummary.MAX_RATING + 1];
+            long sum = 0;
+            LocalDateTime lastUpdated = null;
+            for (Review review : productReviews) {
+                histogram[review.getRating()]++;
+                sum += review.getRating();
+                if (lastUpdated == null || review.getReviewDate().isAfter(lastUpdated)) {
+                    lastUpdated = review.getReviewDate();
+                }
+            }
+            Update update = new Update()
+                    .inc("count", (long) productReviews.size())
+                    .inc("sum", sum)
+                    .max("lastUpdated", lastUpdated);
+            for (int rating = ProductRatingSummary.MIN_RATING; rating <= ProductRatingSummary.MAX_RATING; rating++) {
+                if (histogram[rating] > 0) {
+                    update.inc("histogram." + rating, histogram[rating]);
+                }
+            }
+            updates.put(productId, update);
+        });
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductRatingSummary.class);
+        updates.forEach((productId, update) -> bulk.upsert(Query.query(Criteria.where("_id").is(productId)), update));
+        bulk.execute();
+
+        Cache cache = cacheManager.getCache(RATING_SUMMARIES_CACHE);
+        if (cache != null) {
+            updates.keySet().forEach(cache::evict);
+        }
+    }
+
+    /**
+     * Repair: recomputes every summary from the reviews with a server-side aggregation merged
+     * straight into the summary collection, then deletes summaries of products with no reviews
+     * left. An increment landing while the pipeline runs can be overwritten by the recomputed
+     * document, so this is not scheduled: run it from the admin endpoint while reviews are quiet.
+     *
+     * @return number of products with a summary after the rebuild
+     */
+    @CacheEvict(value = RATING_SUMMARIES_CACHE, allEntries = true)
+    public long rebuildSummaries() {
+        long start = System.currentTimeMillis();
+        Date rebuiltAt = new Date(start);
+        mongoTemplate.getCollection(REVIEWS_COLLECTION)
+                .aggregate(rebuildPipeline(rebuiltAt))
+                .allowDiskUse(true)
+                .toCollection();
+        long deleted = deleteStaleSummaries(rebuiltAt);
+        long summaries = mongoTemplate.getCollection(SUMMARIES_COLLECTION).countDocuments();
+        log.info("Rebuilt {} rating summaries and deleted {} stale ones in {} ms",
+                summaries, deleted, System.currentTimeMillis() - start);
+        return summaries;
+    }
+
+    /**
+     * Deletes the summaries the rebuild stamped with {@code rebuiltAt} did not write whose product
+     * has no reviews. The others were created by a product's first review while the pipeline ran.
+     * A delete only applies while the summary still holds the count read, so a review stored
+     * after the check keeps its summary.
+     */
+    long deleteStaleSummaries(Date rebuiltAt) {
+        Query notRebuilt = Query.query(Criteria.where("rebuiltAt").ne(rebuiltAt));
+        notRebuilt.fields().include("_id").include("count");
+        long deleted = 0;
+        for (Document summary : mongoTemplate.find(notRebuilt, Document.class, SUMMARIES_COLLECTION)) {
+            Object productId = summary.get("_id");
+            if (mongoTemplate.exists(Query.query(Criteria.where("productId").is(productId)), REVIEWS_COLLECTION)) {
+                continue;
+            }
+            Query unchanged = Query.query(Criteria.where("_id").is(productId)
+                    .and("rebuiltAt").ne(rebuiltAt)
+                    .and("count").is(summary.get("count")));
+            deleted += mongoTemplate.remove(unchanged, SUMMARIES_COLLECTION).getDeletedCount();
+        }
+        return deleted;
+    }
+
+    static List<Document> rebuildPipeline(Date rebuiltAt) {
+        Document group = new Document("_id", "$productId")
+                .append("count", new Document("$sum", 1L))
+                .append("sum", new Document("$sum", new Document("$toLong", "$rating")))
+                .append("lastUpdated", new Document("$max", "$reviewDate"));
+        Document histogram = new Document();
+        for (int rating = ProductRatingSummary.MIN_RATING; rating <= ProductRatingSummary.MAX_RATING; rating++) {
+            group.append("r" + rating, new Document("$sum",
+                    new Document("$cond", List.of(new Document("$eq", List.of("$rating", rating)), 1L, 0L))));
+            histogram.append(String.valueOf(rating), "$r" + rating);
+        }
+
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("productId", new Document("$ne", null))
+                .append("rating", new Document("$gte", ProductRatingSummary.MIN_RATING)
+                        .append("$lte", ProductRatingSummary.MAX_RATING))));
+        pipeline.add(new Document("$group", group));
+        pipeline.add(new Document("$project", new Document("count", 1)
+                .append("sum", 1)
+                .append("lastUpdated", 1)
+                .append("histogram", histogram)
+                .append("rebuiltAt", new Document("$literal", rebuiltAt))));
+        pipeline.add(new Document("$merge", new Document("into", SUMMARIES_COLLECTION)
+                .append("on", "_id")
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert")));
+        return pipeline;
+    }
+
+    static void validateRating(Integer rating) {
+        if (rating == null || rating < ProductRatingSummary.MIN_RATING || rating > ProductRatingSummary.MAX_RATING) {
+            throw new IllegalArgumentException("Rating must be between " + ProductRatingSummary.MIN_RATING
+                    + " and " + ProductRatingSummary.MAX_RATING);
+        }
+    }
+}
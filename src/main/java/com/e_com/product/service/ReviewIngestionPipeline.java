@@ -0,0 +1,258 @@
+package com.e_com.product.service;
+
+import com.e_com.product.event.ReviewOutbox;
+import com.e_com.product.model.Review;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for new reviews. Verified reviews wait in a bounded queue; one writer thread takes
+ * up to {@code maxBatchSize} of them, or whatever arrived within {@code maxLinger} of the first,
+ * and stores the batch with {@link ReviewOutbox#saveAllWithEvents}: one transaction with one bulk
+ * insert for the reviews and one for their outbox entries, which the relay then sends to Kafka
+ * together. Each caller's future completes once its batch is committed.
+ * <p>
+ * A single writer keeps outbox entries in commit order. When a bulk write fails the batch is
+ * retried one review at a time, so one bad review does not fail its neighbours.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "review.ingestion.batching.enabled", havingValue = "true")
+public class ReviewIngestionPipeline implements SmartLifecycle {
+
+    private final ReviewOutbox reviewOutbox;
+    private final RatingSummaryService ratingSummaryService;
+    private final BlockingQueue<Pending> queue;
+    private final int queueCapacity;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedReviews = new LongAdder();
+    private final LongAdder fallbackBatches = new LongAdder();
+    private final LongAdder flushLatencyNanos = new LongAdder();
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ReviewIngestionPipeline(ReviewOutbox reviewOutbox,
+                                   RatingSummaryService ratingSummaryService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${review.ingestion.batching.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${review.ingestion.batching.max-batch-size:500}") int maxBatchSize,
+                                   @Value("${review.ingestion.batching.max-linger:5ms}") Duration maxLinger) {
+        this.reviewOutbox = reviewOutbox;
+        this.ratingSummaryService = ratingSummaryService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+
+        Gauge.builder("review.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Reviews waiting to be written")
+                .register(meterRegistry);
+        FunctionCounter.builder("review.ingestion.rejected", rejected, LongAdder::sum)
+                .description("Reviews turned away because the queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("review.ingestion.batch.size")
+                .description("Reviews written per bulk insert")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("review.ingestion.flush.latency")
+                .description("Time from a batch's first review being queued to the batch being committed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a verified review for the next batch.
+     *
+     * @return a future completed with the stored review once its batch is committed, or failed
+     * with {@link RejectedExecutionException} when the queue is full or the pipeline stopped
+     */
+    public CompletableFuture<Review> submit(Review review) {
+        Pending pending = new Pending(review, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Too many reviews are waiting to be stored, retry later"));
+        }
+        // The writer may have exited and drained the queue between the check and the offer
+        if (!running && queue.remove(pending)) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(stoppedException());
+        }
+        submitted.increment();
+        return pending.future;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "review-ingestion");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Stops taking reviews and waits for the ones already queued to be written
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever is still queued is failed by the writer on its way out
+        writer.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stopped after the web server, so requests it lets finish during shutdown can still queue
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (nextBatch(batch)) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Review ingestion batch of {} failed", batch.size(), e);
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+            }
+            batch.clear();
+        }
+
+        // Interrupted before the queue emptied: fail the reviews left over, including a batch
+        // that was being collected, so their requests get a 503 instead of waiting for a timeout
+        running = false;
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            log.warn("Review ingestion stopped with {} reviews unstored", batch.size());
+            RejectedExecutionException stopped = stoppedException();
+            batch.forEach(pending -> pending.future.completeExceptionally(stopped));
+        }
+    }
+
+    private static RejectedExecutionException stoppedException() {
+        return new RejectedExecutionException("Review ingestion stopped before the review was stored, retry later");
+    }
+
+    private boolean nextBatch(List<Pending> batch) throws InterruptedException {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = first.enqueuedNanos + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    void flush(List<Pending> batch) {
+        List<Review> reviews = batch.stream().map(Pending::review).toList();
+        List<Review> stored = new ArrayList<>(reviews.size());
+        try {
+            reviewOutbox.saveAllWithEvents(reviews);
+            stored.addAll(reviews);
+            record(batch);
+            batch.forEach(pending -> pending.future.complete(pending.review));
+        } catch (RuntimeException e) {
+            log.warn("Bulk insert of {} reviews failed, storing them one at a time", reviews.size(), e);
+            fallbackBatches.increment();
+            for (Pending pending : batch) {
+                try {
+                    stored.add(reviewOutbox.saveWithEvent(pending.review));
+                    pending.future.complete(pending.review);
+                } catch (RuntimeException single) {
+                    pending.future.completeExceptionally(single);
+                }
+            }
+            record(batch);
+        }
+
+        // The reviews are already stored; a missed increment is repaired by the next summary rebuild
+        if (!stored.isEmpty()) {
+            try {
+                ratingSummaryService.recordReviews(stored);
+            } catch (Exception e) {
+                log.warn("Could not update rating summaries for a batch of {} reviews", stored.size(), e);
+            }
+        }
+    }
+
+    private void record(List<Pending> batch) {
+        long latency = System.nanoTime() - batch.get(0).enqueuedNanos;
+        batches.increment();
+        batchedReviews.add(batch.size());
+        flushLatencyNanos.add(latency);
+        maxFlushLatencyNanos.accumulateAndGet(latency, Math::max);
+        batchSizes.record(batch.size());
+        flushLatency.record(latency, TimeUnit.NANOSECONDS);
+    }
+
+    public ReviewIngestionStats getStats() {
+        long batchCount = batches.sum();
+        return new ReviewIngestionStats(
+                queue.size(),
+                queueCapacity,
+                submitted.sum(),
+                rejected.sum(),
+                batchCount,
+                batchCount == 0 ? 0 : (double) batchedReviews.sum() / batchCount,
+                fallbackBatches.sum(),
+                batchCount == 0 ? 0 : flushLatencyNanos.sum() / 1_000_000.0 / batchCount,
+                TimeUnit.NANOSECONDS.toMillis(maxFlushLatencyNanos.get()));
+    }
+
+    record Pending(Review review, long enqueuedNanos, CompletableFuture<Review> future) {
+    }
+}
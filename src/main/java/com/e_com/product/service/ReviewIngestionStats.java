@@ -0,0 +1,23 @@
+package com.e_com.product.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewIngestionStats {
+    private int queueDepth;
+    private int queueCapacity;
+    private long submitted;
+    // Turned away because the queue was full
+    private long rejected;
+    private long batches;
+    private double averageBatchSize;
+    // Batches whose bulk write failed and were retried one review at a time
+    private long fallbackBatches;
+    // Time from a batch's first review being queued to the batch being acknowledged
+    private double averageFlushLatencyMillis;
+    private long maxFlushLatencyMillis;
+}
@@ -1,34 +1,89 @@
 package com.e_com.product.service;
 
-import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.event.ReviewOutbox;
 import com.e_com.product.feign.UserServiceClient;
+import com.e_com.product.feign.VerifiedUserCache;
+import com.e_com.product.model.CursorPage;
 import com.e_com.product.model.Review;
+import com.e_com.product.model.ReviewSort;
+import com.e_com.product.readmodel.ReviewReadModel;
 import com.e_com.product.repository.ReviewRepository;
+import com.e_com.product.repository.ReviewRepositoryCustom;
+import com.e_com.product.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
-    private final UserServiceClient userServiceClient; // Feign Client to interact with User Service
-    private final KafkaTemplate<String, ReviewAddedEvent> kafkaTemplate;
+    private final VerifiedUserCache verifiedUserCache; // Cached lookups through the User Service Feign client
+    private final ReviewOutbox reviewOutbox;
+    private final RatingSummaryService ratingSummaryService;
+    private final ReviewReadModel reviewReadModel;
+    private final ObjectProvider<ReviewIngestionPipeline> ingestionPipeline;
 
-    private static final String REVIEW_TOPIC = "review-added-events";
+    @Value("${review.listing.default-page-size:20}")
+    private int defaultPageSize;
 
-    public List<Review> getReviewsByProductId(Long productId) {
-        return reviewRepository.findByProductId(productId);
+    @Value("${review.listing.max-page-size:100}")
+    private int maxPageSize;
+
+    public CursorPage<Review> getReviewsByProductId(Long productId, String cursor, Integer size, String sort) {
+        // First newest-first pages of products the read model knows are answered without Mongo
+        if ((cursor == null || cursor.isBlank()) && ReviewSort.fromParam(sort) == ReviewSort.NEWEST) {
+            Optional<CursorPage<Review>> page = reviewReadModel.findLatest(productId, resolvePageSize(size));
+            if (page.isPresent()) {
+                return page.get();
+            }
+        }
+        return getReviewPage(ReviewRepositoryCustom.PRODUCT_ID, productId, cursor, size, sort);
+    }
+
+    public CursorPage<Review> getReviewsByUserId(Long userId, String cursor, Integer size, String sort) {
+        return getReviewPage(ReviewRepositoryCustom.USER_ID, userId, cursor, size, sort);
     }
 
     public Review addReview(Review review) {
+        verifyReview(review);
+        return storeReview(review);
+    }
+
+    /**
+     * Verifies the review on the calling thread, then stores it through the group-commit pipeline
+     * when review ingestion batching is on, or right away otherwise.
+     *
+     * @throws IllegalArgumentException if the rating or user is invalid
+     * @throws IllegalStateException if the user cannot be verified right now
+     */
+    public CompletableFuture<Review> addReviewAsync(Review review) {
+        verifyReview(review);
+        ReviewIngestionPipeline pipeline = ingestionPipeline.getIfAvailable();
+        if (pipeline == null) {
+            return CompletableFuture.completedFuture(storeReview(review));
+        }
+        return pipeline.submit(review);
+    }
+
+    private void verifyReview(Review review) {
+        RatingSummaryService.validateRating(review.getRating());
+
         UserServiceClient.UserDto user;
         try {
-            user = userServiceClient.getUserById(review.getUserId());
+            user = verifiedUserCache.getUserById(review.getUserId());
 
             // Check if fallback was triggered (user service is down)
             if (user.getId() != null && user.getId() == -1L) {
@@ -62,18 +117,67 @@ public class ReviewService {
             );
         }
 
-        review.setReviewDate(LocalDateTime.now());
-        Review savedReview = reviewRepository.save(review);
-
-        // Publish an event to Kafka after saving the review
-        kafkaTemplate.send(REVIEW_TOPIC, new ReviewAddedEvent(
-                savedReview.getId(),
-                savedReview.getProductId(),
-                savedReview.getUserId(),
-                savedReview.getRating(),
-                savedReview.getComment(),
-                savedReview.getReviewDate()
-        ));
+        // Events carry whole seconds; storing the same keeps read model cursors valid against Mongo
+        review.setReviewDate(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private Review storeReview(Review review) {
+        // The review and its ReviewAddedEvent are stored together; the outbox relay sends the event
+        Review savedReview = reviewOutbox.saveWithEvent(review);
+
+        // The review is already stored; a missed increment is repaired by the next summary rebuild
+        try {
+            ratingSummaryService.recordReview(savedReview);
+        } catch (Exception e) {
+            log.warn("Could not update rating summary for product {}", savedReview.getProductId(), e);
+        }
         return savedReview;
     }
+
+    private CursorPage<Review> getReviewPage(String ownerField, Long ownerId, String cursor, Integer size, String sort) {
+        ReviewSort reviewSort = ReviewSort.fromParam(sort);
+        int pageSize = resolvePageSize(size);
+        Review after = cursor == null || cursor.isBlank() ? null : parseReviewCursor(cursor, reviewSort);
+
+        // Fetch one extra review to find out whether another page exists
+        List<Review> rows = reviewRepository.findPage(ownerField, ownerId, reviewSort, after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Review> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new CursorPage<>(items, encodeReviewCursor(items.get(pageSize - 1), reviewSort));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static String encodeReviewCursor(Review last, ReviewSort sort) {
+        if (sort == ReviewSort.RATING) {
+            return CursorCodec.encode(last.getRating(), last.getReviewDate(), last.getId());
+        }
+        return CursorCodec.encode(last.getReviewDate(), last.getId());
+    }
+
+    private static Review parseReviewCursor(String cursor, ReviewSort sort) {
+        String[] parts = CursorCodec.decode(cursor, sort == ReviewSort.RATING ? 3 : 2);
+        int offset = parts.length - 2;
+        Review anchor = new Review();
+        try {
+            if (sort == ReviewSort.RATING) {
+                anchor.setRating(Integer.parseInt(parts[0]));
+            }
+            anchor.setReviewDate(LocalDateTime.parse(parts[offset]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        anchor.setId(parts[offset + 1]);
+        return anchor;
+    }
 }
@@ -1,15 +1,51 @@
 package com.e_com.product;
 
+import com.e_com.product.service.ProductService;
 import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @ActiveProfiles("test")
 class ProductApplicationTests {
 
+	@Autowired
+	private ProductService productService;
+
 	@Test
 	void contextLoads() {
 	}
 
+	// @CachePut must see the committed row with its bumped version, and nothing from a rollback
+	@Test
+	void cachingWrapsTransactions() {
+		List<Advisor> advisors = List.of(((Advised) productService).getAdvisors());
+		int cacheAdvisor = indexOf(advisors, BeanFactoryCacheOperationSourceAdvisor.class);
+		int transactionAdvisor = indexOf(advisors, BeanFactoryTransactionAttributeSourceAdvisor.class);
+
+		assertTrue(cacheAdvisor >= 0 && transactionAdvisor >= 0, "Both advisors apply to ProductService");
+		assertTrue(cacheAdvisor < transactionAdvisor, "The cache advisor must run outside the transaction");
+		assertTrue(((BeanFactoryCacheOperationSourceAdvisor) advisors.get(cacheAdvisor)).getOrder()
+				< ((BeanFactoryTransactionAttributeSourceAdvisor) advisors.get(transactionAdvisor)).getOrder(),
+				"The order must not rest on a tie-break");
+	}
+
+	private static int indexOf(List<Advisor> advisors, Class<?> type) {
+		for (int i = 0; i < advisors.size(); i++) {
+			if (type.isInstance(advisors.get(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 }
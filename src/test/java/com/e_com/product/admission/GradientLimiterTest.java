@@ -0,0 +1,86 @@
+package com.e_com.product.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final GradientLimiter limiter = new GradientLimiter(
+            new AdmissionControlProperties.Limit(10, 2, 100), 1.5, 0.2, 5, 600, clock::get);
+
+    @Test
+    @DisplayName("Test requests over the limit are rejected and a permit is only released once")
+    void testRejectsOverLimit() {
+        List<GradientLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+
+        assertNull(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        permits.get(0).onSuccess();
+        permits.get(0).onSuccess();
+        assertEquals(9, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire());
+        assertNull(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Test the limit grows while latency holds and shrinks once requests start queueing")
+    void testLimitFollowsLatencyGradient() {
+        for (int i = 0; i < 20; i++) {
+            runFullRound(10);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, "Steady latency at full utilisation should raise the limit, was " + grown);
+
+        for (int i = 0; i < 10; i++) {
+            runFullRound(50);
+        }
+        assertTrue(limiter.getLimit() < grown,
+                "A fivefold latency rise should lower the limit from " + grown + ", was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Test the limit does not grow while most of it is unused")
+    void testNoGrowthWhenUnderused() {
+        for (int i = 0; i < 50; i++) {
+            GradientLimiter.Permit permit = limiter.tryAcquire();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+            permit.onSuccess();
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Test server errors cut the limit down to its floor")
+    void testDropsBackOff() {
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire().onDropped();
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(50, limiter.getDropped());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private void runFullRound(long rttMillis) {
+        List<GradientLimiter.Permit> permits = new ArrayList<>();
+        GradientLimiter.Permit permit;
+        while ((permit = limiter.tryAcquire()) != null) {
+            permits.add(permit);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        permits.forEach(GradientLimiter.Permit::onSuccess);
+    }
+}
@@ -0,0 +1,201 @@
+package com.e_com.product.bulk;
+
+import com.e_com.product.cache.CacheBatchOperations;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.config.ProductCacheProperties;
+import com.e_com.product.event.ProductChangedEvent;
+import com.e_com.product.model.Product;
+import com.e_com.product.repository.ProductBulkRepository;
+import com.e_com.product.service.ProductJsonService;
+import com.e_com.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceTest {
+
+    @Mock
+    private ProductBulkRepository bulkRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TwoTierCacheManager cacheManager;
+    private ProductBulkService bulkService;
+    private final List<List<String>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TwoTierCacheManager(new ConcurrentMapCacheManager(ProductService.PRODUCTS_CACHE,
+                ProductJsonService.PRODUCT_JSON_CACHE),
+                new ProductCacheProperties(), message -> {
+        }, CacheBatchOperations.ONE_BY_ONE);
+        // Imports run inline so each test sees the finished job
+        bulkService = new ProductBulkService(bulkRepository, productService, cacheManager, eventPublisher,
+                new ObjectMapper(), transactionManager, Runnable::run, 2, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    private void assignIdsOnInsert() {
+        AtomicLong ids = new AtomicLong(100);
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setId(ids.incrementAndGet()));
+            insertedChunks.add(products.stream().map(Product::getName).toList());
+            return null;
+        }).when(bulkRepository).insertAll(anyList());
+    }
+
+    private ProductImportStatus runImport(String input, BulkFormat format, boolean warmCache) throws IOException {
+        return bulkService.startImport(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                format, warmCache);
+    }
+
+    private String errorReport(String jobId) throws IOException {
+        return Files.readString(bulkService.findErrorReport(jobId).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Test a CSV import inserts in chunks, skips duplicates and reports rejected lines")
+    void testCsvImport() throws IOException {
+        assignIdsOnInsert();
+        // Lookups of the first id before the import cached its absence in both caches
+        cacheManager.getCache(ProductService.PRODUCTS_CACHE).put(101L, null);
+        cacheManager.getCache(ProductJsonService.PRODUCT_JSON_CACHE).put(101L, null);
+        when(bulkRepository.findExistingNames(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).contains("Mouse")
+                        ? Set.of("Mouse") : Set.of());
+        String csv = """
+                name,description,price,category
+                Laptop,"Fast, light ""pro"" laptop",999.99,Electronics
+                Laptop,Repeat,1,Electronics
+                Mouse,Wireless,19.5,Electronics
+                ,No name,5,Misc
+
+                Keyboard,"Two
+                line description",abc,Electronics
+                Monitor,,250,
+                """;
+
+        ProductImportStatus status = runImport(csv, BulkFormat.CSV, false);
+
+        ProductImportStatus finished = bulkService.getImportStatus(status.getJobId()).orElseThrow();
+        assertEquals(ProductImportStatus.State.COMPLETED, finished.getState());
+        assertEquals(6, finished.getRecordsRead());
+        assertEquals(2, finished.getImported());
+        assertEquals(2, finished.getDuplicates());
+        assertEquals(2, finished.getFailed());
+        assertEquals(List.of(List.of("Laptop"), List.of("Monitor")), insertedChunks);
+        verify(eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+        assertNull(cacheManager.getCache(ProductService.PRODUCTS_CACHE).get(101L),
+                "The imported product's cached null is evicted");
+        assertNull(cacheManager.getCache(ProductJsonService.PRODUCT_JSON_CACHE).get(101L));
+
+        String report = errorReport(status.getJobId());
+        assertTrue(report.startsWith("line,error\n"));
+        assertTrue(report.contains("3,\"Duplicate name, skipped\""));
+        assertTrue(report.contains("4,\"Product with this name already exists, skipped\""));
+        assertTrue(report.contains("5,Name is required"));
+        assertTrue(report.contains("7,Invalid price 'abc'"));
+        assertEquals(5, report.lines().count());
+    }
+
+    @Test
+    @DisplayName("Test an NDJSON import can warm the cache and survives a chunk that fails to commit")
+    void testNdjsonImportWithWarmCacheAndFailedChunk() throws IOException {
+        when(bulkRepository.findExistingNames(anyCollection())).thenReturn(Set.of());
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.get(0).getName().equals("Broken")) {
+                throw new DataIntegrityViolationException("Data too long for column 'name'");
+            }
+            products.forEach(product -> product.setId(ids.incrementAndGet()));
+            return null;
+        }).when(bulkRepository).insertAll(anyList());
+        String ndjson = """
+                {"name":"Laptop","price":999.99}
+                {"name":"Phone","price":599.0}
+                {"name":"Broken"}
+                {"name":"Other"}
+                {not json
+                {"name":"Tablet","price":299.0}
+                """;
+
+        ProductImportStatus status = runImport(ndjson, BulkFormat.NDJSON, true);
+
+        ProductImportStatus finished = bulkService.getImportStatus(status.getJobId()).orElseThrow();
+        assertEquals(ProductImportStatus.State.COMPLETED, finished.getState());
+        assertEquals(3, finished.getImported());
+        assertEquals(3, finished.getFailed());
+        assertEquals("Laptop", cacheManager.getCache(ProductService.PRODUCTS_CACHE).get(1L, Product.class).getName());
+        assertEquals("Tablet", cacheManager.getCache(ProductService.PRODUCTS_CACHE).get(3L, Product.class).getName());
+        assertTrue(errorReport(status.getJobId()).contains("Chunk rolled back: Data too long for column 'name'"));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Test a CSV export reads back through the importer unchanged")
+    void testCsvExportRoundTrip() throws IOException {
+        List<Product> products = List.of(
+                new Product(1L, "Laptop", "Fast, light \"pro\"\nlaptop", 999.99, "Electronics", 0L),
+                new Product(2L, "Cable", null, null, null, 0L));
+        doAnswer(invocation -> {
+            products.forEach(invocation.<Consumer<Product>>getArgument(0));
+            return null;
+        }).when(productService).streamAllProducts(any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bulkService.export(BulkFormat.CSV, output);
+
+        List<Product> read = new ArrayList<>();
+        try (ProductRecordReader reader = new ProductRecordReader(
+                new BufferedReader(new StringReader(output.toString(StandardCharsets.UTF_8))),
+                BulkFormat.CSV, new ObjectMapper())) {
+            ProductRecordReader.ImportRecord record;
+            while ((record = reader.next()) != null) {
+                read.add(record.product());
+            }
+        }
+        products.forEach(product -> product.setId(null));
+        assertEquals(products, read);
+    }
+}
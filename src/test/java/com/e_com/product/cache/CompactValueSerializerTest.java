@@ -0,0 +1,85 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.config.CacheConfig;
+import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.SerializedProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactValueSerializerTest {
+
+    private final ObjectMapper objectMapper = CacheConfig.cacheObjectMapper();
+    private final CompactValueSerializer serializer = new CompactValueSerializer(objectMapper, Product.class, 0);
+
+    @Test
+    @DisplayName("Test products round-trip and encode smaller than JSON, including null fields")
+    void testProductRoundTrip() {
+        Product product = new Product(42L, "Gaming Laptop", "16GB RAM, 1TB SSD", 1299.99, "Electronics", 0L);
+        Product sparse = new Product(7L, "Cable", null, null, null, 0L);
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertEquals(product, serializer.deserialize(bytes));
+        assertEquals(sparse, serializer.deserialize(serializer.serialize(sparse)));
+        assertTrue(bytes.length < new Jackson2JsonRedisSerializer<>(objectMapper, Object.class).serialize(product).length);
+    }
+
+    @Test
+    @DisplayName("Test rating summaries and other values round-trip as their own types")
+    void testSummaryAndFallbackRoundTrip() {
+        ProductRatingSummary summary = new ProductRatingSummary(42L, 3, 12,
+                Map.of("1", 0L, "2", 0L, "3", 0L, "4", 3L, "5", 0L), LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+        ReviewAddedEvent event = new ReviewAddedEvent("r1", 42L, 7L, 4, "Great", LocalDateTime.of(2024, 5, 1, 12, 30));
+
+        ProductRatingSummary read = (ProductRatingSummary) serializer.deserialize(serializer.serialize(summary));
+
+        assertEquals(summary.getHistogram(), read.getHistogram());
+        assertEquals(summary, read);
+        assertEquals(event, serializer.deserialize(serializer.serialize(event)));
+    }
+
+    @Test
+    @DisplayName("Test serialized product bodies round-trip byte for byte, with and without a gzip copy")
+    void testSerializedProductRoundTrip() {
+        SerializedProduct withGzip = new SerializedProduct(3L, "{\"id\":42}".getBytes(), new byte[]{31, -117, 8, 0});
+        SerializedProduct plain = new SerializedProduct(0L, "{\"id\":7}".getBytes(), null);
+
+        assertEquals(withGzip, serializer.deserialize(serializer.serialize(withGzip)));
+        assertEquals(plain, serializer.deserialize(serializer.serialize(plain)));
+    }
+
+    @Test
+    @DisplayName("Test bodies past the compression threshold are deflated and read back")
+    void testCompressionThreshold() {
+        Product product = new Product(1L, "Laptop", "Fast laptop ".repeat(100), 999.0, "Electronics", 0L);
+        CompactValueSerializer compressing = new CompactValueSerializer(objectMapper, Product.class, 256);
+
+        byte[] plain = serializer.serialize(product);
+        byte[] compressed = compressing.serialize(product);
+
+        assertTrue(compressed.length < plain.length / 4);
+        assertEquals(product, compressing.deserialize(compressed));
+        assertEquals(product, compressing.deserialize(plain), "Uncompressed values stay readable");
+    }
+
+    @Test
+    @DisplayName("Test JSON written by the old serializer is read, and unknown format versions read as a miss")
+    void testLegacyAndUnknownVersions() {
+        Product product = new Product(42L, "Gaming Laptop", "16GB RAM", 1299.99, "Electronics", 0L);
+        byte[] legacy = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class).serialize(product);
+        byte[] future = serializer.serialize(product);
+        future[0] = CompactValueSerializer.FORMAT_VERSION + 1;
+
+        assertEquals(product, serializer.deserialize(legacy));
+        assertNull(serializer.deserialize(future));
+    }
+}
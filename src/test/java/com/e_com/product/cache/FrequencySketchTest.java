@@ -0,0 +1,48 @@
+package com.e_com.product.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    @DisplayName("Test drain returns the heavy hitters hottest first even after many cold keys")
+    void testDrainReturnsHeavyHitters() {
+        FrequencySketch sketch = new FrequencySketch(1 << 12, 3);
+        for (long key = 1_000; key < 11_000; key++) {
+            sketch.increment(key);
+        }
+        for (int i = 0; i < 50; i++) {
+            sketch.increment(1L);
+            if (i < 40) {
+                sketch.increment(2L);
+            }
+            if (i < 30) {
+                sketch.increment(3L);
+            }
+        }
+
+        Map<Long, Long> top = sketch.drain();
+
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(top.keySet()));
+        assertTrue(top.get(1L) >= 50, "Count-min estimates never undercount");
+    }
+
+    @Test
+    @DisplayName("Test drain starts counting from zero again")
+    void testDrainResetsCounts() {
+        FrequencySketch sketch = new FrequencySketch(1 << 10, 10);
+        sketch.increment(7L);
+        sketch.increment(7L);
+
+        sketch.drain();
+
+        assertEquals(0, sketch.estimate(7L));
+        assertTrue(sketch.drain().isEmpty());
+    }
+}
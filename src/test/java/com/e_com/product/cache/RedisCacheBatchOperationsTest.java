@@ -0,0 +1,74 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.config.CacheConfig;
+import com.e_com.product.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RedisCacheBatchOperationsTest {
+
+    private final CompactValueSerializer serializer =
+            new CompactValueSerializer(CacheConfig.cacheObjectMapper(), Product.class, 0);
+
+    @Test
+    @DisplayName("Test MGET reads older format versions, keeps cached nulls and treats unreadable values as misses")
+    void testGetAllAcrossFormatVersions() {
+        Product product = new Product(42L, "Gaming Laptop", "16GB RAM", 1299.99, "Electronics", 0L);
+        byte[] current = serializer.serialize(product);
+        // Version 1 wrote the same product layout without the trailing entity version
+        byte[] v1 = Arrays.copyOf(current, current.length - 1);
+        v1[0] = 1;
+        byte[] future = current.clone();
+        future[0] = CompactValueSerializer.FORMAT_VERSION + 1;
+        byte[] cachedNull = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+        RedisCache cache = redisCache();
+        RedisCacheBatchOperations operations = new RedisCacheBatchOperations(
+                connectionFactory(Arrays.asList(v1, future, cachedNull, null)));
+
+        List<Cache.ValueWrapper> values = operations.getAll(cache, List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(product, values.get(0).get(), "A product cached before the upgrade is still found");
+        assertNull(values.get(1), "A value this node cannot read is a miss, not a cached null");
+        assertNotNull(values.get(2));
+        assertNull(values.get(2).get());
+        assertNull(values.get(3));
+    }
+
+    private RedisCache redisCache() {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        RedisCache cache = mock(RedisCache.class);
+        when(cache.getName()).thenReturn("products");
+        when(cache.getCacheConfiguration()).thenReturn(config);
+        return cache;
+    }
+
+    private static RedisConnectionFactory connectionFactory(List<byte[]> rawValues) {
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(rawValues);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        return connectionFactory;
+    }
+}
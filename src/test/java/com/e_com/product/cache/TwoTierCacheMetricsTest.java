@@ -0,0 +1,36 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.config.ProductCacheProperties.CacheSpec;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoTierCacheMetricsTest {
+
+    @Test
+    @DisplayName("Test cache meters report per-tier lookups and time remote reads and loads")
+    void testMetersFollowCacheActivity() {
+        CacheSpec spec = new CacheSpec();
+        spec.setEarlyRefreshBeta(0);
+        ConcurrentMapCache remote = new ConcurrentMapCache("products");
+        TwoTierCache cache = new TwoTierCache("products", remote, 100, spec, message -> { }, "node-a",
+                Runnable::run, CacheBatchOperations.ONE_BY_ONE);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TwoTierCacheMetrics(cache, Tags.empty()).bindTo(registry);
+
+        cache.get(1L, () -> "laptop");
+        cache.get(1L, () -> "laptop");
+
+        assertEquals(1, registry.get("cache.tier.gets").tags("tier", "local", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.tier.gets").tags("tier", "remote", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.loads").functionCounter().count());
+        assertEquals(1, registry.get("cache.remote.latency").tags("cache", "products").timer().count());
+        assertEquals(1, registry.get("cache.load.latency").tags("cache", "products").timer().count());
+    }
+}
@@ -0,0 +1,184 @@
+package com.e_com.product.cache;
+
+import com.e_com.product.config.ProductCacheProperties.CacheSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache remote;
+    private List<CacheInvalidationMessage> published;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("products");
+        published = new ArrayList<>();
+        cache = newCache(new CacheSpec());
+    }
+
+    private TwoTierCache newCache(CacheSpec spec) {
+        spec.setEarlyRefreshBeta(0);
+        // Refreshes run inline so the tests can observe their effect deterministically
+        return new TwoTierCache("products", remote, 100, spec, published::add, "node-a", Runnable::run,
+                CacheBatchOperations.ONE_BY_ONE);
+    }
+
+    @Test
+    @DisplayName("Test a remote hit populates the local tier so the next read stays in-process")
+    void testRemoteHitPopulatesLocalTier() {
+        remote.put(1L, "laptop");
+
+        assertEquals("laptop", cache.get(1L, String.class));
+        remote.evict(1L);
+        assertEquals("laptop", cache.get(1L, String.class), "Second read should be served locally");
+
+        TwoTierCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getRemote().getHits());
+        assertEquals(1, stats.getLocal().getHits());
+    }
+
+    @Test
+    @DisplayName("Test writes go to both tiers and are announced to other nodes")
+    void testPutWritesThroughAndPublishes() {
+        cache.put(2L, "phone");
+
+        assertEquals("phone", remote.get(2L).get());
+        assertEquals(1, published.size());
+        assertEquals(new CacheInvalidationMessage("node-a", "products", List.of("2")), published.get(0));
+    }
+
+    @Test
+    @DisplayName("Test a peer invalidation drops only the local copy")
+    void testInvalidateLocalKeepsRemote() {
+        cache.put(3L, "book");
+        remote.put(3L, "book v2");
+
+        cache.invalidateLocal(List.of("3"));
+
+        assertEquals("book v2", cache.get(3L, String.class));
+        assertEquals(1, cache.getStats().getInvalidationsReceived());
+    }
+
+    @Test
+    @DisplayName("Test evict removes the entry from both tiers")
+    void testEvictRemovesFromBothTiers() {
+        cache.put(4L, "desk");
+
+        cache.evict(4L);
+
+        assertNull(cache.get(4L));
+        assertNull(remote.get(4L));
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    @DisplayName("Test evictAll removes every key from both tiers with one announcement")
+    void testEvictAllRemovesFromBothTiers() {
+        cache.put(5L, null);
+        cache.put(6L, "lamp");
+        published.clear();
+
+        cache.evictAll(List.of(5L, 6L));
+
+        assertNull(cache.get(5L));
+        assertNull(remote.get(6L));
+        assertEquals(List.of(new CacheInvalidationMessage("node-a", "products", List.of("5", "6"))), published);
+    }
+
+    @Test
+    @DisplayName("Test concurrent misses for one key share a single loader call")
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(callers.submit(() -> cache.get(5L, () -> {
+                loaderCalls.incrementAndGet();
+                loaderStarted.countDown();
+                releaseLoader.await();
+                return "lamp";
+            })));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(callers.submit(() -> cache.get(5L, () -> {
+                    loaderCalls.incrementAndGet();
+                    return "duplicate load";
+                })));
+            }
+            while (cache.getStats().getCoalescedWaits() < 7) {
+                Thread.sleep(5);
+            }
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("lamp", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loaderCalls.get(), "Only one caller should reach the backing store");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a load that started before an evict does not cache its value afterwards")
+    void testLoadStartedBeforeEvictIsNotCached() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> result = caller.submit(() -> cache.get(7L, () -> {
+                loaderStarted.countDown();
+                releaseLoader.await();
+                return "chair before delete";
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            cache.evict(7L);
+            releaseLoader.countDown();
+
+            assertEquals("chair before delete", result.get(5, TimeUnit.SECONDS), "The caller still gets its answer");
+            assertNull(remote.get(7L));
+            assertNull(cache.get(7L));
+            assertEquals("chair", cache.get(7L, () -> "chair"), "The next load caches normally");
+            assertEquals("chair", remote.get(7L).get());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a stale local copy is served while it is revalidated in the background")
+    void testStaleWhileRevalidate() throws Exception {
+        CacheSpec spec = new CacheSpec();
+        spec.setLocalTtl(Duration.ofMillis(200));
+        spec.setTtlJitter(0);
+        spec.setStaleWhileRevalidate(Duration.ofMinutes(1));
+        TwoTierCache staleCache = newCache(spec);
+
+        assertEquals("v1", staleCache.get(6L, () -> "v1"));
+        Thread.sleep(250);
+        remote.evict(6L);
+
+        assertEquals("v1", staleCache.get(6L, () -> "v2"), "Stale copy should be served immediately");
+        assertEquals("v2", staleCache.get(6L, () -> "v3"), "Refresh should have replaced the stale copy");
+        assertEquals(1, staleCache.getStats().getStaleHits());
+        assertEquals(1, staleCache.getStats().getRefreshes());
+    }
+}
@@ -0,0 +1,162 @@
+package com.e_com.product.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private final AtomicReference<Duration> replicaLag = new AtomicReference<>(Duration.ZERO);
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test read-only transactions go to the replica and read-write ones to the primary")
+    void testReadOnlyTransactionsUseReplica() {
+        Routing routing = routing(Map.of("replica-1", replica));
+
+        assertEquals("replica", routing.read());
+        assertEquals("primary", routing.write());
+        assertEquals("primary", new JdbcTemplate(routing.dataSource).queryForObject("select name from marker", String.class),
+                "Work outside a transaction goes to the primary");
+        assertEquals(1, routing.routing.getStats().getReplicas().get(0).getReads());
+    }
+
+    @Test
+    @DisplayName("Test a replica past the maximum lag gets no reads until it catches up")
+    void testLaggingReplicaIsSkipped() {
+        Routing routing = routing(Map.of("replica-1", replica));
+
+        replicaLag.set(Duration.ofSeconds(30));
+        routing.routing.checkReplicas();
+        assertEquals("primary", routing.read());
+
+        replicaLag.set(Duration.ofMillis(200));
+        routing.routing.checkReplicas();
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    @DisplayName("Test a caller reads from the primary for a while after writing, other callers do not")
+    void testReadYourWrites() {
+        Routing routing = routing(Map.of("replica-1", replica));
+
+        authenticate("admin");
+        routing.write();
+        assertEquals("primary", routing.read());
+
+        authenticate("someone-else");
+        assertEquals("replica", routing.read());
+        assertEquals(1, routing.routing.getStats().getStickyReads());
+    }
+
+    @Test
+    @DisplayName("Test reads pinned to the primary skip the replica without counting as a write")
+    void testPinnedReadsUsePrimary() {
+        Routing routing = routing(Map.of("replica-1", replica));
+        authenticate("admin");
+
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(routing::read));
+        assertEquals("replica", routing.read(), "Pinning must not keep the caller's later reads on the primary");
+
+        ReplicaRoutingStats stats = routing.routing.getStats();
+        assertEquals(1, stats.getPinnedReads());
+        assertEquals(0, stats.getStickyReads());
+    }
+
+    @Test
+    @DisplayName("Test a replica refusing connections falls back to the primary and leaves the rotation")
+    void testUnreachableReplicaFallsBackToPrimary() {
+        DriverManagerDataSource unreachable = new DriverManagerDataSource(
+                "jdbc:h2:mem:unreachable;IFEXISTS=TRUE", "sa", "");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", unreachable);
+        replicas.put("replica-2", replica);
+        // Both replicas look caught up, so the first read tries the unreachable one
+        Routing routing = routing(replicas);
+
+        assertEquals("primary", routing.read());
+        assertEquals("replica", routing.read());
+        assertEquals("replica", routing.read());
+
+        ReplicaRoutingStats stats = routing.routing.getStats();
+        assertFalse(stats.getReplicas().get(0).isHealthy());
+        assertEquals(1, stats.getReplicas().get(0).getConnectionFailures());
+        assertEquals(1, stats.getFallbackReads());
+    }
+
+    private Routing routing(Map<String, DataSource> replicas) {
+        ReplicaLagProbe probe = dataSource -> replicaLag.get();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, probe,
+                Duration.ofSeconds(5), new ReadYourWritesTracker(Duration.ofMinutes(1)));
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        return new Routing(routing, new LazyConnectionDataSourceProxy(routing));
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(name, null, List.of()));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table marker (name varchar(20))");
+        jdbcTemplate.update("insert into marker values (?)", name);
+        return database;
+    }
+
+    private record Routing(ReplicaRoutingDataSource routing, DataSource dataSource) {
+
+        String read() {
+            return inTransaction(true);
+        }
+
+        String write() {
+            return inTransaction(false);
+        }
+
+        private String inTransaction(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status ->
+                    new JdbcTemplate(dataSource).queryForObject("select name from marker", String.class));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.Product;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(partitions = 2, topics = ProductChangePublisherTest.TOPIC)
+class ProductChangePublisherTest {
+
+    static final String TOPIC = "product-change-events";
+
+    @Test
+    @DisplayName("Test product changes are keyed by id with versions, deletions are tombstones, and end offsets count them")
+    void testChangesAndTombstones(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        DefaultKafkaProducerFactory<String, ProductChangeMessage> producerFactory =
+                new DefaultKafkaProducerFactory<>(producerProps);
+        KafkaAdmin kafkaAdmin = new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+        ProductChangePublisher publisher = new ProductChangePublisher(new KafkaTemplate<>(producerFactory), kafkaAdmin, TOPIC);
+
+        publisher.publish(1L, new ProductChangeMessage(ProductChangedEvent.ChangeType.CREATED, 1L, 0L,
+                new Product(1L, "Laptop", "16GB RAM", 999.0, "Electronics", 0L)));
+        publisher.publish(1L, new ProductChangeMessage(ProductChangedEvent.ChangeType.UPDATED, 1L, 1L,
+                new Product(1L, "Laptop", "32GB RAM", 1099.0, "Electronics", 1L)));
+        publisher.publish(2L, new ProductChangeMessage(ProductChangedEvent.ChangeType.CREATED, 2L, 0L,
+                new Product(2L, "Mouse", null, 19.0, "Electronics", 0L)));
+        // Acknowledged once the future completes, which the outbox relay waits for
+        publisher.publish(1L, null).get(10, TimeUnit.SECONDS);
+
+        Map<String, Object> consumerProps = new HashMap<>(KafkaTestUtils.consumerProps("product-change-test", "false", broker));
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            List<ConsumerRecord<String, String>> product1 = new ArrayList<>();
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 4).forEach(record -> {
+                if (record.key().equals("1")) {
+                    product1.add(record);
+                }
+            });
+
+            assertEquals(3, product1.size());
+            assertTrue(product1.get(0).value().contains("\"type\":\"CREATED\""));
+            assertTrue(product1.get(0).value().contains("\"version\":0"));
+            assertTrue(product1.get(1).value().contains("\"version\":1"));
+            assertNull(product1.get(2).value(), "Deletion should be a tombstone");
+        } finally {
+            producerFactory.destroy();
+        }
+
+        assertEquals(4L, publisher.endOffsets().values().stream().mapToLong(Long::longValue).sum());
+        ProductChangePublisherStats stats = publisher.getStats();
+        assertEquals(3, stats.getPublished());
+        assertEquals(1, stats.getTombstones());
+        assertEquals(0, stats.getFailed());
+    }
+}
@@ -0,0 +1,98 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductOutboxEntry;
+import com.e_com.product.repository.ProductRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductOutboxRelayTest {
+
+    @Mock
+    private ProductOutbox productOutbox;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangePublisher productChangePublisher;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ProductOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new ProductOutboxRelay(productOutbox, productRepository, productChangePublisher, mongoTemplate, 4,
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Test entries are sent as the product's current state or a tombstone, and deleted up to the first failed send")
+    void testRelaySendsCurrentStateAndKeepsUnsentEntries() {
+        Product laptop = new Product(1L, "Laptop", "32GB RAM", 1099.0, "Electronics", 3L);
+        when(productOutbox.findPending(4)).thenReturn(List.of(
+                entry(10L, 1L, ProductChangedEvent.ChangeType.CREATED),
+                entry(11L, 2L, ProductChangedEvent.ChangeType.DELETED),
+                entry(12L, 3L, ProductChangedEvent.ChangeType.UPDATED),
+                entry(13L, 4L, ProductChangedEvent.ChangeType.DELETED)));
+        // Product 3 was deleted after its update was recorded
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(laptop));
+        when(productChangePublisher.publish(anyLong(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(3, relay.relayBatch());
+
+        ArgumentCaptor<ProductChangeMessage> message = ArgumentCaptor.forClass(ProductChangeMessage.class);
+        verify(productChangePublisher).publish(eq(1L), message.capture());
+        assertEquals(3L, message.getValue().getVersion(), "The product is sent as it is now");
+        assertSame(laptop, message.getValue().getProduct());
+        verify(productChangePublisher).publish(2L, null);
+        verify(productChangePublisher).publish(3L, null);
+        verify(productOutbox).deleteAll(List.of(10L, 11L, 12L));
+        assertEquals(1, relay.getStats().getInterruptedBatches());
+    }
+
+    @Test
+    @DisplayName("Test sent entries are left in the outbox when the lease was lost meanwhile")
+    void testLostLeaseKeepsEntries() {
+        when(productOutbox.findPending(4)).thenReturn(List.of(entry(10L, 2L, ProductChangedEvent.ChangeType.DELETED)));
+        when(productChangePublisher.publish(2L, null)).thenReturn(CompletableFuture.completedFuture(null));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(productOutbox, never()).deleteAll(anyList());
+        verifyNoInteractions(productRepository);
+    }
+
+    private static ProductOutboxEntry entry(long id, long productId, ProductChangedEvent.ChangeType type) {
+        return new ProductOutboxEntry(id, productId, type, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,76 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.ProductOutboxEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductOutboxTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ProductOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        // Same shape Hibernate generates for ProductOutboxEntry
+        jdbcTemplate.execute("create table product_outbox (id bigint generated by default as identity primary key, " +
+                "product_id bigint not null, type varchar(16) not null, created_at timestamp(6))");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        outbox = new ProductOutbox(jdbcTemplate, new NamedParameterJdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test changes are recorded when their transaction commits and dropped when it rolls back")
+    void testChangesFollowTheirTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.onProductChanged(change(ProductChangedEvent.ChangeType.CREATED, 1L));
+            outbox.onProductChanged(change(ProductChangedEvent.ChangeType.UPDATED, 1L));
+            assertEquals(0, count(), "Changes are inserted only just before the commit");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.onProductChanged(change(ProductChangedEvent.ChangeType.CREATED, 2L));
+            status.setRollbackOnly();
+        });
+        outbox.onProductChanged(change(ProductChangedEvent.ChangeType.DELETED, 1L));
+
+        List<ProductOutboxEntry> pending = outbox.findPending(10);
+        assertEquals(List.of(ProductChangedEvent.ChangeType.CREATED, ProductChangedEvent.ChangeType.UPDATED,
+                ProductChangedEvent.ChangeType.DELETED), pending.stream().map(ProductOutboxEntry::getType).toList());
+        assertTrue(pending.stream().allMatch(entry -> entry.getProductId() == 1L));
+
+        outbox.deleteAll(List.of(pending.get(0).getId(), pending.get(1).getId()));
+        assertEquals(List.of(pending.get(2)), outbox.findPending(10));
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("select count(*) from product_outbox", Integer.class);
+    }
+
+    private static ProductChangedEvent change(ProductChangedEvent.ChangeType type, long productId) {
+        return new ProductChangedEvent(type, productId, null);
+    }
+}
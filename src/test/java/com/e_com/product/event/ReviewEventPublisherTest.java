@@ -0,0 +1,103 @@
+package com.e_com.product.event;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@EmbeddedKafka(partitions = 3, topics = ReviewEventPublisherTest.TOPIC)
+class ReviewEventPublisherTest {
+
+    static final String TOPIC = "review-added-events";
+
+    @Test
+    @DisplayName("Test review events are keyed by product and keep per-product order")
+    void testEventsKeyedByProduct(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        producerProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        producerProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        DefaultKafkaProducerFactory<String, ReviewAddedEvent> producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+        ReviewEventPublisher publisher = new ReviewEventPublisher(new KafkaTemplate<>(producerFactory));
+
+        for (int i = 0; i < 20; i++) {
+            long productId = i % 4;
+            publisher.publish(TOPIC, String.valueOf(productId), event("r" + i, productId));
+        }
+        producerFactory.createProducer().flush();
+        assertEquals(20, publisher.getStats().getAcknowledged());
+
+        Map<String, Object> consumerProps = new HashMap<>(KafkaTestUtils.consumerProps("review-test", "false", broker));
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 20);
+
+            List<ConsumerRecord<String, String>> all = StreamSupport.stream(records.spliterator(), false).toList();
+            assertEquals(20, all.size());
+            for (ConsumerRecord<String, String> record : all) {
+                assertTrue(record.value().contains("\"productId\":" + record.key()));
+            }
+            List<String> product1 = all.stream()
+                    .filter(record -> record.key().equals("1"))
+                    .map(record -> record.value().replaceAll(".*\"reviewId\":\"(r\\d+)\".*", "$1"))
+                    .toList();
+            assertEquals(List.of("r1", "r5", "r9", "r13", "r17"), product1);
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Test failed sends complete exceptionally and are counted")
+    @SuppressWarnings("unchecked")
+    void testFailedSendsReported() {
+        KafkaTemplate<String, ReviewAddedEvent> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any(ReviewAddedEvent.class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenThrow(new IllegalStateException("metadata unavailable"))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(mock(SendResult.class)));
+        ReviewEventPublisher publisher = new ReviewEventPublisher(kafkaTemplate);
+
+        assertTrue(publisher.publish(TOPIC, "1", event("r1", 1L)).isCompletedExceptionally());
+        assertTrue(publisher.publish(TOPIC, "1", event("r2", 1L)).isCompletedExceptionally());
+        assertFalse(publisher.publish(TOPIC, "1", event("r3", 1L)).isCompletedExceptionally());
+
+        ReviewEventPublisherStats stats = publisher.getStats();
+        assertEquals(3, stats.getSent());
+        assertEquals(2, stats.getFailed());
+        assertEquals(1, stats.getAcknowledged());
+    }
+
+    private static ReviewAddedEvent event(String reviewId, Long productId) {
+        return new ReviewAddedEvent(reviewId, productId, 9L, 5, "Great", LocalDateTime.of(2024, 5, 1, 12, 0));
+    }
+}
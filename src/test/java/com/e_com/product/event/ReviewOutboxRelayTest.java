@@ -0,0 +1,133 @@
+package com.e_com.product.event;
+
+import com.e_com.product.model.OutboxEvent;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewOutboxRelayTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ReviewEventPublisher reviewEventPublisher;
+
+    private ReviewOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new ReviewOutboxRelay(mongoTemplate, reviewEventPublisher, 3,
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Test relay marks entries published only up to the first failed send")
+    void testRelayStopsAtFirstFailure() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of(entry("o1"), entry("o2"), entry("o3")));
+        when(reviewEventPublisher.publish(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(1, relay.relayBatch());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(OutboxEvent.class));
+        Document idFilter = (Document) query.getValue().getQueryObject().get("id");
+        assertEquals(List.of("o1"), idFilter.get("$in"));
+        assertEquals(1, relay.getStats().getInterruptedBatches());
+    }
+
+    @Test
+    @DisplayName("Test relay does nothing while another node holds the lease")
+    void testRelaySkipsWithoutLease() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenThrow(new DuplicateKeyException("lease held"));
+
+        relay.relay();
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(OutboxEvent.class));
+        assertFalse(relay.getStats().isLeader());
+    }
+
+    @Test
+    @DisplayName("Test lease holder drains the backlog in full batches")
+    void testLeaseHolderDrainsBacklog() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of(entry("o1"), entry("o2"), entry("o3")))
+                .thenReturn(List.of(entry("o4")));
+        when(reviewEventPublisher.publish(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(OutboxEvent.class));
+        assertTrue(relay.getStats().isLeader());
+        assertEquals(4, relay.getStats().getRelayed());
+    }
+
+    @Test
+    @DisplayName("Test a node that lost the lease during a batch leaves its entries pending")
+    void testLostLeaseFencesStatusUpdate() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        // Another node took the expired lease while the sends were in flight
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq("outbox_leases")))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class)))
+                .thenReturn(List.of(entry("o1"), entry("o2"), entry("o3")));
+        when(reviewEventPublisher.publish(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        ArgumentCaptor<Query> fence = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(fence.capture(), any(Update.class), eq("outbox_leases"));
+        assertNotNull(fence.getValue().getQueryObject().get("owner"));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(OutboxEvent.class));
+        assertFalse(relay.getStats().isLeader());
+        assertEquals(0, relay.getStats().getRelayed());
+    }
+
+    @Test
+    @DisplayName("Test a send timeout that does not fit in the lease is refused")
+    void testSendTimeoutMustFitInLease() {
+        assertThrows(IllegalArgumentException.class, () -> new ReviewOutboxRelay(mongoTemplate, reviewEventPublisher,
+                3, Duration.ofSeconds(10), Duration.ofSeconds(10)));
+    }
+
+    private static OutboxEvent entry(String id) {
+        ReviewAddedEvent event = new ReviewAddedEvent("r-" + id, 1L, 9L, 5, "Great", LocalDateTime.of(2024, 5, 1, 12, 0));
+        return new OutboxEvent(id, "review-added-events", "1", event, OutboxEvent.Status.PENDING,
+                LocalDateTime.of(2024, 5, 1, 12, 0), null);
+    }
+}
@@ -0,0 +1,236 @@
+package com.e_com.product.feign;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingUserServiceClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<StubInstance> stubs = new ArrayList<>();
+    private HedgingUserServiceClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.destroy();
+        }
+        stubs.forEach(stub -> stub.server.stop(0));
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Test a lookup stuck on a slow instance is answered by a hedge to another instance")
+    void testHedgeAnswersForSlowInstance() throws Exception {
+        StubInstance slow = stub(0);
+        StubInstance fast = stub(0);
+        UserServiceCallProperties properties = properties();
+        properties.setMinSamples(10);
+        // Room for a slow test machine: only the hedge should decide this lookup, never the timeout
+        properties.getTimeout().setMin(Duration.ofSeconds(1));
+        client = client(properties, slow, fast);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token-7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Even number of warm-up calls, so the next first attempt goes to the slow instance again
+        for (int i = 0; i < 20; i++) {
+            assertEquals(7L, client.getUserById(7L).getId());
+        }
+        long hedgeWinsBefore = client.getStats().getHedgeWins();
+        slow.delayMillis.set(3000);
+
+        long start = System.nanoTime();
+        UserServiceClient.UserDto user = client.getUserById(7L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(7L, user.getId());
+        assertTrue(elapsedMillis < 1000, "hedged lookup took " + elapsedMillis + " ms");
+        // The winning attempt counts itself right after handing the caller its answer
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (client.getStats().getHedgeWins() == hedgeWinsBefore && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        UserServiceCallStats stats = client.getStats();
+        assertEquals(hedgeWinsBefore + 1, stats.getHedgeWins());
+        assertTrue(stats.getHedges() >= 1);
+        assertEquals(0, stats.getFailures() + stats.getTimeouts());
+
+        // The caller's token reached both instances although the attempts ran on bulkhead threads
+        assertEquals("Bearer token-7", slow.lastAuthorization.get());
+        assertEquals("Bearer token-7", fast.lastAuthorization.get());
+
+        // The saving is recorded once the slow attempt finally answers
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (client.getStats().getLatencySavedMillis() < 1000 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(client.getStats().getLatencySavedMillis() >= 1000);
+    }
+
+    @Test
+    @DisplayName("Test a lookup sent to an instance refusing connections is failed over to another instance")
+    void testFailoverAnswersForRefusedConnection() {
+        StubInstance down = stub(0);
+        StubInstance up = stub(0);
+        down.server.stop(0);
+        UserServiceCallProperties properties = properties();
+        // Only the failover should answer this lookup, not a hedge
+        properties.getHedge().setMinDelay(Duration.ofSeconds(1));
+        client = client(properties, down, up);
+
+        // The first lookup starts on the first instance
+        UserServiceClient.UserDto user = client.getUserById(7L);
+
+        assertEquals(7L, user.getId());
+        UserServiceCallStats stats = client.getStats();
+        assertEquals(1, stats.getFailovers());
+        assertEquals(0, stats.getFailures() + stats.getTimeouts());
+        assertEquals(1, up.requests.get());
+    }
+
+    @Test
+    @DisplayName("Test the caller gets the fallback user once the timeout passes")
+    void testTimeoutAnswersWithFallback() {
+        StubInstance slow = stub(1000);
+        UserServiceCallProperties properties = properties();
+        properties.getTimeout().setMax(Duration.ofMillis(200));
+        client = client(properties, slow);
+
+        long start = System.nanoTime();
+        UserServiceClient.UserDto user = client.getUserById(7L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(-1L, user.getId());
+        assertTrue(elapsedMillis < 800, "timed out lookup took " + elapsedMillis + " ms");
+        assertEquals(1, client.getStats().getTimeouts());
+    }
+
+    @Test
+    @DisplayName("Test lookups beyond the bulkhead are answered by the fallback without calling user-service")
+    void testFullBulkheadAnswersWithFallback() {
+        StubInstance slow = stub(1000);
+        UserServiceCallProperties properties = properties();
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxQueuedCalls(0);
+        properties.getTimeout().setMax(Duration.ofMillis(100));
+        client = client(properties, slow);
+
+        // Times out but keeps the only bulkhead thread busy
+        assertEquals(-1L, client.getUserById(7L).getId());
+        assertEquals(-1L, client.getUserById(8L).getId());
+
+        UserServiceCallStats stats = client.getStats();
+        assertEquals(1, stats.getBulkheadRejections());
+        assertEquals(1, slow.requests.get());
+    }
+
+    @Test
+    @DisplayName("Test attempts still queued when their caller gives up are dropped, not sent later")
+    void testQueuedAttemptsDroppedAfterTimeout() throws Exception {
+        StubInstance slow = stub(1000);
+        UserServiceCallProperties properties = properties();
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxQueuedCalls(1);
+        properties.getTimeout().setMax(Duration.ofMillis(100));
+        client = client(properties, slow);
+
+        // The first lookup holds the only bulkhead thread, the second waits in the queue until it times out
+        assertEquals(-1L, client.getUserById(7L).getId());
+        assertEquals(-1L, client.getUserById(8L).getId());
+        assertEquals(0, client.getStats().getQueuedAttempts());
+
+        Thread.sleep(1500);
+        assertEquals(1, slow.requests.get());
+        assertEquals(2, client.getStats().getTimeouts());
+    }
+
+    private UserServiceCallProperties properties() {
+        UserServiceCallProperties properties = new UserServiceCallProperties();
+        properties.getTimeout().setMax(Duration.ofSeconds(2));
+        properties.getHedge().setMinDelay(Duration.ofMillis(50));
+        return properties;
+    }
+
+    private HedgingUserServiceClient client(UserServiceCallProperties properties, StubInstance... instances) {
+        List<URI> uris = stubs.stream().filter(List.of(instances)::contains).map(StubInstance::uri).toList();
+        HedgingUserServiceClient hedgingClient = new HedgingUserServiceClient(properties, () -> uris,
+                uri -> Feign.builder()
+                        .contract(new SpringMvcContract())
+                        .decoder((response, type) ->
+                                objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)))
+                        .target(UserServiceClient.class, uri.toString()),
+                (userId, authorization) -> fail("load-balanced client used with discovered instances"),
+                new UserServiceClientFallback(), new SimpleMeterRegistry());
+        hedgingClient.afterPropertiesSet();
+        return hedgingClient;
+    }
+
+    // A user-service instance answering every lookup after the given delay
+    private StubInstance stub(long delayMillis) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            StubInstance stub = new StubInstance(server, new AtomicLong(delayMillis), new AtomicLong(),
+                    new AtomicReference<>());
+            server.createContext("/api/users/", exchange -> {
+                stub.requests.incrementAndGet();
+                stub.lastAuthorization.set(exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+                try {
+                    Thread.sleep(stub.delayMillis.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String path = exchange.getRequestURI().getPath();
+                String id = path.substring(path.lastIndexOf('/') + 1);
+                byte[] body = ("{\"id\":" + id + ",\"name\":\"user\",\"email\":\"user@example.com\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                try {
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                } catch (IOException e) {
+                    // The client gave up on this attempt
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            stubs.add(stub);
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StubInstance(HttpServer server, AtomicLong delayMillis, AtomicLong requests,
+                                AtomicReference<String> lastAuthorization) {
+        URI uri() {
+            return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        }
+    }
+}
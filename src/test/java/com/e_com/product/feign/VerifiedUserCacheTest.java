@@ -0,0 +1,85 @@
+package com.e_com.product.feign;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedUserCacheTest {
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    private VerifiedUserCache verifiedUserCache;
+
+    @BeforeEach
+    void setUp() {
+        verifiedUserCache = new VerifiedUserCache(userServiceClient, new ObjectMapper(),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("Test existing users are served from the cache after the first lookup")
+    void testPositiveEntryCached() {
+        when(userServiceClient.getUserById(5L)).thenReturn(user(5L));
+
+        assertEquals(5L, verifiedUserCache.getUserById(5L).getId());
+        assertEquals(5L, verifiedUserCache.getUserById(5L).getId());
+
+        verify(userServiceClient, times(1)).getUserById(5L);
+        VerifiedUserCacheStats stats = verifiedUserCache.getStats();
+        assertEquals(1, stats.getPositiveHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Test unknown users are cached as negative entries")
+    void testNegativeEntryCached() {
+        when(userServiceClient.getUserById(6L)).thenReturn(user(null));
+
+        assertNull(verifiedUserCache.getUserById(6L).getId());
+        assertNull(verifiedUserCache.getUserById(6L).getId());
+
+        verify(userServiceClient, times(1)).getUserById(6L);
+        assertEquals(1, verifiedUserCache.getStats().getNegativeHits());
+    }
+
+    @Test
+    @DisplayName("Test fallback answers are never cached")
+    void testFallbackNotCached() {
+        when(userServiceClient.getUserById(5L)).thenReturn(user(-1L), user(5L));
+
+        assertEquals(-1L, verifiedUserCache.getUserById(5L).getId());
+        assertEquals(5L, verifiedUserCache.getUserById(5L).getId());
+
+        verify(userServiceClient, times(2)).getUserById(5L);
+        assertEquals(1, verifiedUserCache.getStats().getUncacheable());
+    }
+
+    @Test
+    @DisplayName("Test user change events drop the cached entry")
+    void testUserChangeEventInvalidates() {
+        when(userServiceClient.getUserById(6L)).thenReturn(user(null), user(6L));
+        verifiedUserCache.getUserById(6L);
+
+        verifiedUserCache.onUserChanged("{\"userId\":6,\"type\":\"REGISTERED\"}");
+
+        assertEquals(6L, verifiedUserCache.getUserById(6L).getId());
+        assertEquals(1, verifiedUserCache.getStats().getInvalidations());
+    }
+
+    private static UserServiceClient.UserDto user(Long id) {
+        UserServiceClient.UserDto user = new UserServiceClient.UserDto();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,87 @@
+package com.e_com.product.filter;
+
+import com.e_com.product.admission.AdmissionControlProperties;
+import com.e_com.product.admission.AdmissionController;
+import com.e_com.product.admission.AdmissionControlStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionController admissionController;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setGroups(Map.of("products", List.of("/api/products", "/api/products/**")));
+        properties.setExcludedPaths(List.of("/api/products/stream"));
+        properties.setAnonymous(new AdmissionControlProperties.Limit(1, 1, 1));
+        properties.setAuthenticated(new AdmissionControlProperties.Limit(1, 1, 1));
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        admissionController = new AdmissionController(properties);
+        filter = new AdmissionControlFilter(admissionController, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Test callers over their group's limit are turned away with 429 or 503 and Retry-After")
+    void testRejectsWhenLimitReached() throws Exception {
+        // The first anonymous request holds the only permit while a second one arrives
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products/7"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(request("/api/products/8"), second, new MockFilterChain()));
+
+        assertEquals(429, second.getStatus());
+        assertEquals("2", second.getHeader("Retry-After"));
+        assertTrue(second.getContentAsString().contains("TOO_MANY_REQUESTS"));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        MockHttpServletResponse authenticated = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(request("/api/products/9"), authenticated, new MockFilterChain()));
+        assertEquals(503, authenticated.getStatus());
+
+        AdmissionControlStats anonymous = admissionController.getStats().get(0);
+        assertEquals(1, anonymous.getAccepted());
+        assertEquals(1, anonymous.getRejected());
+        assertEquals(0, anonymous.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Test paths outside every group and excluded paths are never limited")
+    void testUnlimitedPaths() throws Exception {
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        filter.doFilter(request("/api/products/1"), new MockHttpServletResponse(), (req, res) -> {
+            filter.doFilter(request("/api/products/stream"), nested, new MockFilterChain());
+            filter.doFilter(request("/api/reviews"), nested, new MockFilterChain());
+        });
+
+        assertEquals(200, nested.getStatus());
+        assertEquals(0, admissionController.getStats().get(0).getRejected());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
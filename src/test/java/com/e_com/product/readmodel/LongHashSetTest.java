@@ -0,0 +1,26 @@
+package com.e_com.product.readmodel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("Test values are added once across resizes and the table stays within twice the load factor")
+    void testAddAcrossResizes() {
+        LongHashSet set = new LongHashSet(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(set.add(ReviewReadModel.reviewIdHash("review-" + i)));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(set.add(ReviewReadModel.reviewIdHash("review-" + i)));
+        }
+
+        assertEquals(10_000, set.size());
+        // At most 22 bytes per value, the bound the read model documents
+        assertTrue(set.capacity() * 8L <= 22L * set.size(), "capacity " + set.capacity());
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+    }
+}
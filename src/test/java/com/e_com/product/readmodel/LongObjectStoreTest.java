@@ -0,0 +1,28 @@
+package com.e_com.product.readmodel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectStoreTest {
+
+    @Test
+    @DisplayName("Test values survive growing well past the expected size and are replaced in place")
+    void testPutGetAcrossResizes() {
+        LongObjectStore<String> store = new LongObjectStore<>(16);
+        for (long key = -5_000; key < 5_000; key++) {
+            store.put(key, "v" + key);
+        }
+        store.put(42L, "replaced");
+
+        assertEquals(10_000, store.size());
+        assertEquals("v-5000", store.get(-5_000L));
+        assertEquals("replaced", store.get(42L));
+        assertNull(store.get(5_000L));
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertNull(store.get(1L));
+    }
+}
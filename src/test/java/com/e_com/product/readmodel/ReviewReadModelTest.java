@@ -0,0 +1,149 @@
+package com.e_com.product.readmodel;
+
+import com.e_com.product.event.ReviewAddedEvent;
+import com.e_com.product.model.CursorPage;
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.Review;
+import com.e_com.product.service.RatingSummaryService;
+import com.e_com.product.util.CursorCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ReviewReadModelTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final RatingSummaryService ratingSummaryService = mock(RatingSummaryService.class);
+    private ReviewReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        // Unless a test says otherwise, Mongo holds no reviews the topic lacks
+        when(ratingSummaryService.getSummary(anyLong()))
+                .thenAnswer(invocation -> ProductRatingSummary.empty(invocation.getArgument(0)));
+        readModel = new ReviewReadModel(objectMapper, ratingSummaryService, 2, 16);
+    }
+
+    @Test
+    @DisplayName("Test views answer nothing until the consumer has caught up with the topic")
+    void testNoAnswersBeforeCaughtUp() {
+        readModel.apply(event("r1", 7L, 5, 1));
+
+        assertTrue(readModel.findLatest(7L, 2).isEmpty());
+        assertTrue(readModel.findSummary(7L).isEmpty());
+
+        readModel.markCaughtUp();
+        assertTrue(readModel.findSummary(7L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test the view keeps the newest reviews and totals over every review")
+    void testViewKeepsNewestReviewsAndTotals() {
+        readModel.apply(event("r1", 7L, 5, 1));
+        readModel.apply(event("r2", 7L, 3, 2));
+        readModel.apply(event("r3", 7L, 4, 3));
+        readModel.markCaughtUp();
+
+        CursorPage<Review> page = readModel.findLatest(7L, 2).orElseThrow();
+        assertEquals(List.of("r3", "r2"), page.getItems().stream().map(Review::getId).toList());
+        assertEquals(CursorCodec.encode(date(2), "r2"), page.getNextCursor(),
+                "The cursor continues in Mongo after the last review served");
+        assertTrue(readModel.findLatest(7L, 3).isEmpty(), "A page larger than the view goes to Mongo");
+
+        ProductRatingSummary summary = readModel.findSummary(7L).orElseThrow();
+        assertEquals(3, summary.getCount());
+        assertEquals(12, summary.getSum());
+        assertEquals(Map.of("1", 0L, "2", 0L, "3", 1L, "4", 1L, "5", 1L), summary.getHistogram());
+        assertEquals(date(3), summary.getLastUpdated());
+    }
+
+    @Test
+    @DisplayName("Test redelivered and replayed events are applied once")
+    void testDuplicatesAreSkipped() throws Exception {
+        ReviewAddedEvent first = event("r1", 7L, 5, 1);
+        readModel.apply(record(first));
+        readModel.apply(record(event("r2", 7L, 1, 2)));
+        readModel.apply(record(first));
+        readModel.apply(record(event("r2", 7L, 1, 2)));
+        readModel.markCaughtUp();
+
+        assertEquals(2, readModel.findSummary(7L).orElseThrow().getCount());
+        assertEquals(2, readModel.getStats().getDuplicatesSkipped());
+        assertEquals(2, readModel.getStats().getReviewsHeld());
+    }
+
+    @Test
+    @DisplayName("Test an older review arriving after newer ones is counted and kept in newest-first order")
+    void testOutOfOrderEventsAreApplied() throws Exception {
+        readModel.apply(record(event("r3", 7L, 4, 3)));
+        readModel.apply(record(event("r1", 7L, 5, 1)));
+        readModel.apply(record(event("r2", 7L, 3, 2)));
+        readModel.apply(record(event("r1", 7L, 5, 1)));
+        readModel.markCaughtUp();
+
+        CursorPage<Review> page = readModel.findLatest(7L, 2).orElseThrow();
+        assertEquals(List.of("r3", "r2"), page.getItems().stream().map(Review::getId).toList());
+        ProductRatingSummary summary = readModel.findSummary(7L).orElseThrow();
+        assertEquals(3, summary.getCount());
+        assertEquals(12, summary.getSum());
+        assertEquals(date(3), summary.getLastUpdated());
+        assertEquals(1, readModel.getStats().getDuplicatesSkipped());
+    }
+
+    @Test
+    @DisplayName("Test a view missing reviews stored before events were published is not answered from")
+    void testIncompleteViewFallsBackToMongo() {
+        ProductRatingSummary stored = ProductRatingSummary.empty(7L);
+        stored.setCount(3);
+        when(ratingSummaryService.getSummary(7L)).thenReturn(stored);
+        readModel.apply(event("r4", 7L, 5, 4));
+        readModel.markCaughtUp();
+
+        assertTrue(readModel.findLatest(7L, 20).isEmpty(), "Two older reviews exist only in Mongo");
+        assertTrue(readModel.findSummary(7L).isEmpty());
+
+        // Once the view has caught up with Mongo it answers without asking again
+        readModel.apply(event("r5", 7L, 5, 5));
+        readModel.apply(event("r6", 7L, 5, 6));
+        assertEquals(3, readModel.findSummary(7L).orElseThrow().getCount());
+        readModel.apply(event("r7", 7L, 5, 7));
+        assertEquals(4, readModel.findSummary(7L).orElseThrow().getCount());
+        verify(ratingSummaryService, times(3)).getSummary(7L);
+    }
+
+    @Test
+    @DisplayName("Test a product with fewer reviews than the page is answered in full without a cursor")
+    void testSmallProductAnsweredInFull() {
+        readModel.apply(event("r1", 8L, 4, 1));
+        readModel.markCaughtUp();
+
+        CursorPage<Review> page = readModel.findLatest(8L, 20).orElseThrow();
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertTrue(readModel.findLatest(9L, 20).isEmpty(), "Products the view has not seen go to Mongo");
+    }
+
+    private ConsumerRecord<String, String> record(ReviewAddedEvent event) throws Exception {
+        return new ConsumerRecord<>("review-added-events", 0, 0, String.valueOf(event.getProductId()),
+                objectMapper.writeValueAsString(event));
+    }
+
+    private static ReviewAddedEvent event(String id, long productId, int rating, int day) {
+        return new ReviewAddedEvent(id, productId, 100L + day, rating, "comment " + id, date(day));
+    }
+
+    private static LocalDateTime date(int day) {
+        return LocalDateTime.of(2024, 5, day, 10, 0);
+    }
+}
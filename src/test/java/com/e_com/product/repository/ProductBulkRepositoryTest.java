@@ -0,0 +1,73 @@
+package com.e_com.product.repository;
+
+import com.e_com.product.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductBulkRepositoryTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ProductBulkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        // Same shape Hibernate generates for Product
+        jdbcTemplate.execute("create table products (id bigint generated by default as identity primary key, " +
+                "name varchar(255), description varchar(255), price float(53), category varchar(255), " +
+                "version bigint not null)");
+        repository = new ProductBulkRepository(jdbcTemplate, new NamedParameterJdbcTemplate(database));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test a batch insert assigns every product its generated id in order")
+    void testInsertAllAssignsIds() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            products.add(new Product(null, "Product " + i, null, i == 0 ? null : i * 1.5, "Category", 0L));
+        }
+
+        repository.insertAll(products);
+
+        for (Product product : products) {
+            assertEquals(product.getName(), jdbcTemplate.queryForObject(
+                    "select name from products where id = ?", String.class, product.getId()));
+        }
+        assertNull(jdbcTemplate.queryForObject("select price from products where id = ?", Double.class,
+                products.get(0).getId()));
+        assertEquals(250, jdbcTemplate.queryForObject("select count(*) from products", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Test the existing-name lookup returns only names already in the table")
+    void testFindExistingNames() {
+        repository.insertAll(List.of(new Product(null, "Laptop", null, 999.0, "Electronics", 0L),
+                new Product(null, "Mouse", null, 19.0, "Electronics", 0L)));
+
+        assertEquals(Set.of("Laptop"), repository.findExistingNames(List.of("Laptop", "Keyboard")));
+        assertEquals(Set.of(), repository.findExistingNames(List.of()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.e_com.product.search;
+
+import com.e_com.product.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(new Product(1L, "Fast Gaming Laptop", "Laptop with a bright screen", 1500.0, "Electronics", 0L));
+        index.index(new Product(2L, "Laptop Sleeve", "Padded sleeve for any laptop", 30.0, "Accessories", 0L));
+        index.index(new Product(3L, "Office Chair", "Ergonomic chair", 250.0, "Furniture", 0L));
+        index.index(new Product(4L, "Cookbook", "Recipes for a fast weeknight dinner", 25.0, "Books", 0L));
+    }
+
+    @Test
+    @DisplayName("Test search ranks name matches above description matches")
+    void testSearchRanksNameMatchesFirst() {
+        SearchResult result = index.search("fast", null, null, null, 0, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(1L, 4L), productIds(result));
+        assertTrue(result.getHits().get(0).getScore() > 0);
+    }
+
+    @Test
+    @DisplayName("Test facets ignore the category filter but honour the price filter")
+    void testFacetsIgnoreCategoryFilter() {
+        SearchResult result = index.search("laptop", "Accessories", null, 1000.0, 0, 10);
+
+        assertEquals(List.of(2L), productIds(result));
+        assertEquals(Map.of("Accessories", 1L), result.getCategoryFacets());
+
+        SearchResult unfiltered = index.search("laptop", "Accessories", null, null, 0, 10);
+        assertEquals(Map.of("Electronics", 1L, "Accessories", 1L), unfiltered.getCategoryFacets());
+    }
+
+    @Test
+    @DisplayName("Test blank query browses by product id with paging")
+    void testBlankQueryBrowsesByProductId() {
+        SearchResult result = index.search(" ", null, 20.0, 300.0, 1, 2);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of(3L, 4L), productIds(result));
+    }
+
+    @Test
+    @DisplayName("Test reindexing and removing products replace their previous terms")
+    void testUpdateAndRemove() {
+        index.index(new Product(3L, "Standing Desk", "Adjustable desk", 400.0, "Furniture", 0L));
+        index.remove(1L);
+
+        assertEquals(0, index.search("chair", null, null, null, 0, 10).getTotal());
+        assertEquals(List.of(3L), productIds(index.search("desk", null, null, null, 0, 10)));
+        assertEquals(List.of(2L), productIds(index.search("laptop", null, null, null, 0, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Test compaction keeps results intact")
+    void testCompactionKeepsResults() {
+        for (long id = 10; id < 3010; id++) {
+            index.index(new Product(id, "Widget " + id, "Spare widget", 5.0, "Parts", 0L));
+        }
+        for (long id = 10; id < 3010; id++) {
+            index.remove(id);
+        }
+        index.compact();
+
+        assertEquals(4, index.size());
+        assertEquals(0, index.search("widget", null, null, null, 0, 10).getTotal());
+        assertEquals(List.of(2L, 1L), productIds(index.search("laptop", null, null, null, 0, 10)));
+    }
+
+    private static List<Long> productIds(SearchResult result) {
+        return result.getHits().stream().map(SearchResult.Hit::getProductId).toList();
+    }
+}
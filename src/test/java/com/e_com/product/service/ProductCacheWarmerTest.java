@@ -0,0 +1,99 @@
+package com.e_com.product.service;
+
+import com.e_com.product.config.ProductCacheProperties;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductLookupResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheWarmerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductJsonService productJsonService;
+
+    @Mock
+    private ProductAccessTracker accessTracker;
+
+    private ProductCacheProperties cacheProperties;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new ProductCacheProperties();
+        cacheProperties.getWarmup().setTopN(5);
+        cacheProperties.getWarmup().setConcurrency(2);
+    }
+
+    @Test
+    @DisplayName("Test warm-up loads the hot ids in batches and counts the products found")
+    void testWarmUpLoadsHotIdsInBatches() {
+        when(accessTracker.hottestProductIds(5)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(productService.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            // Product 5 no longer exists
+            return ids.stream()
+                    .map(id -> new ProductLookupResult(id, id != 5L, id != 5L ? product(id) : null))
+                    .toList();
+        });
+
+        ProductCacheWarmupStats stats = new ProductCacheWarmer(productService, productJsonService, accessTracker, cacheProperties, 2).warmUp();
+
+        verify(productService).getProductsByIds(List.of(1L, 2L));
+        verify(productService).getProductsByIds(List.of(3L, 4L));
+        verify(productService).getProductsByIds(List.of(5L));
+        // The response bodies GET /api/products/{id} serves are warmed too
+        verify(productJsonService).cacheAll(List.of(product(1L), product(2L)));
+        verify(productJsonService).cacheAll(List.of(product(3L), product(4L)));
+        assertEquals(5, stats.getRequested());
+        assertEquals(4, stats.getWarmed());
+        assertFalse(stats.isTimedOut());
+    }
+
+    @Test
+    @DisplayName("Test warm-up gives up on readiness after the timeout")
+    void testWarmUpStopsWaitingAfterTimeout() {
+        cacheProperties.getWarmup().setTimeout(Duration.ofMillis(100));
+        when(accessTracker.hottestProductIds(5)).thenReturn(LongStream.rangeClosed(1, 5).boxed().toList());
+        CountDownLatch never = new CountDownLatch(1);
+        when(productService.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            never.await();
+            return List.of();
+        });
+
+        ProductCacheWarmupStats stats = new ProductCacheWarmer(productService, productJsonService, accessTracker, cacheProperties, 2).warmUp();
+
+        assertTrue(stats.isTimedOut());
+        assertEquals(0, stats.getWarmed());
+    }
+
+    @Test
+    @DisplayName("Test warm-up is skipped when the ranking cannot be read")
+    void testWarmUpSkippedWithoutRanking() {
+        when(accessTracker.hottestProductIds(5)).thenThrow(new IllegalStateException("Redis is down"));
+
+        ProductCacheWarmupStats stats = new ProductCacheWarmer(productService, productJsonService, accessTracker, cacheProperties, 2).warmUp();
+
+        assertEquals(0, stats.getRequested());
+        verifyNoInteractions(productService);
+    }
+
+    private static Product product(long id) {
+        return new Product(id, "Product " + id, null, 10.0, "Books", 0L);
+    }
+}
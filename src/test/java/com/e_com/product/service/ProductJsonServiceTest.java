@@ -0,0 +1,74 @@
+package com.e_com.product.service;
+
+import com.e_com.product.cache.TwoTierCache;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.model.Product;
+import com.e_com.product.model.SerializedProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductJsonServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductService productService = mock(ProductService.class);
+    private final TwoTierCacheManager cacheManager = mock(TwoTierCacheManager.class);
+    private final ProductJsonService productJsonService =
+            new ProductJsonService(productService, objectMapper, cacheManager, 512);
+
+    @Test
+    @DisplayName("Test the cached body is what the JSON mapper would have written, tagged with the version")
+    void testBodyMatchesMapperOutput() throws Exception {
+        Product product = new Product(42L, "Gaming Laptop", "16GB RAM", 1299.99, "Electronics", 3L);
+        when(productService.getProductById(42L)).thenReturn(Optional.of(product));
+
+        SerializedProduct serialized = productJsonService.getSerializedProduct(42L).orElseThrow();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), serialized.getJson());
+        assertEquals(3L, serialized.getVersion());
+        assertNull(serialized.getGzip(), "Small bodies are not worth compressing");
+        assertTrue(productJsonService.getSerializedProduct(7L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test large bodies keep a gzip copy that decodes to the same JSON")
+    void testLargeBodiesAreGzipped() throws IOException {
+        Product product = new Product(1L, "Laptop", "Fast laptop ".repeat(100), 999.0, "Electronics", 0L);
+
+        SerializedProduct serialized = productJsonService.serialize(product);
+
+        assertNotNull(serialized.getGzip());
+        assertTrue(serialized.getGzip().length < serialized.getJson().length / 4);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(serialized.getGzip()))) {
+            assertArrayEquals(serialized.getJson(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Test products already loaded are cached as bodies in one batch write")
+    void testCacheAllWritesBodiesInOneBatch() {
+        TwoTierCache cache = mock(TwoTierCache.class);
+        when(cacheManager.getCache(ProductJsonService.PRODUCT_JSON_CACHE)).thenReturn(cache);
+        Product first = new Product(1L, "Laptop", null, 999.0, "Electronics", 2L);
+        Product second = new Product(2L, "Mouse", null, 19.0, "Electronics", 0L);
+
+        productJsonService.cacheAll(List.of(first, second));
+
+        verify(cache).putAll(argThat((Map<?, ?> bodies) -> bodies.size() == 2
+                && ((SerializedProduct) bodies.get(1L)).getVersion() == 2L
+                && ((SerializedProduct) bodies.get(2L)).getVersion() == 0L));
+    }
+}
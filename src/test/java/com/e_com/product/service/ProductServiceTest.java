@@ -1,7 +1,16 @@
 package com.e_com.product.service;
 
+import com.e_com.product.cache.CacheBatchOperations;
+import com.e_com.product.cache.TwoTierCache;
+import com.e_com.product.cache.TwoTierCacheManager;
+import com.e_com.product.config.ProductCacheProperties;
+import com.e_com.product.event.ProductChangedEvent;
+import com.e_com.product.model.CursorPage;
 import com.e_com.product.model.Product;
+import com.e_com.product.model.ProductLookupResult;
 import com.e_com.product.repository.ProductRepository;
+import com.e_com.product.util.CursorCodec;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,7 +21,14 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -25,6 +41,15 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TwoTierCacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -32,7 +57,10 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
-        testProduct = new Product(1L, "Laptop", "Powerful laptop", 1200.0, "Electronics");
+        testProduct = new Product(1L, "Laptop", "Powerful laptop", 1200.0, "Electronics", 0L);
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 3);
+        ReflectionTestUtils.setField(productService, "maxBatchSize", 5);
     }
 
     @Test
@@ -70,14 +98,141 @@ class ProductServiceTest {
         assertNotNull(createdProduct);
         assertEquals(product, createdProduct, "Created product should match the test product");
         verify(productRepository, times(1)).save(product);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.CREATED, product.getId(), product));
+    }
+
+    @Test
+    @DisplayName("Test updateProduct writes onto the stored row so its version is kept for the optimistic check")
+    void testUpdateProductCopiesOntoStoredRow() {
+        Product stored = new Product(1L, "Laptop", "Powerful laptop", 1200.0, "Electronics", 3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(productRepository.save(stored)).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Product updated = productService.updateProduct(1L, new Product(null, "Laptop Pro", "Faster", 1500.0, "Electronics", 0L));
+
+        assertEquals(new Product(1L, "Laptop Pro", "Faster", 1500.0, "Electronics", 3L), updated);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.UPDATED, 1L, updated));
+    }
+
+    @Test
+    @DisplayName("Test updateProduct rejects unknown products")
+    void testUpdateProductRejectsUnknownProduct() {
+        when(productRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.updateProduct(9L, new Product(null, "Laptop", null, 1.0, null, 0L)));
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test conditional updateProduct is a single versioned update that returns the next version")
+    void testConditionalUpdateProductBumpsVersion() {
+        Product changes = new Product(null, "Laptop Pro", "Faster", 1500.0, "Electronics", 0L);
+        when(productRepository.updateIfVersion(1L, 3L, changes)).thenReturn(1);
+
+        Product updated = productService.updateProduct(1L, 3L, changes);
+
+        assertEquals(new Product(1L, "Laptop Pro", "Faster", 1500.0, "Electronics", 4L), updated);
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).existsById(any());
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.UPDATED, 1L, updated));
+    }
+
+    @Test
+    @DisplayName("Test conditional updateProduct reports a stale version as an optimistic locking failure")
+    void testConditionalUpdateProductRejectsStaleVersion() {
+        Product changes = new Product(null, "Laptop Pro", null, 1500.0, null, 0L);
+        when(productRepository.updateIfVersion(1L, 2L, changes)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.updateProduct(1L, 2L, changes));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test conditional updateProduct rejects unknown products")
+    void testConditionalUpdateProductRejectsUnknownProduct() {
+        Product changes = new Product(null, "Laptop", null, 1.0, null, 0L);
+        when(productRepository.updateIfVersion(9L, 0L, changes)).thenReturn(0);
+        when(productRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> productService.updateProduct(9L, 0L, changes));
     }
 
     private static Stream<Product> provideProducts() {
         return Stream.of(
-            new Product(1L, "Laptop", "Powerful laptop", 1200.0, "Electronics"),
-            new Product(2L, "Smartphone", "Latest smartphone", 800.0, "Electronics"),
-            new Product(3L, "Book", "Interesting book", 600.0, "Books")
+            new Product(1L, "Laptop", "Powerful laptop", 1200.0, "Electronics", 0L),
+            new Product(2L, "Smartphone", "Latest smartphone", 800.0, "Electronics", 0L),
+            new Product(3L, "Book", "Interesting book", 600.0, "Books", 0L)
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test getProductsPage returns a continuation cursor when more rows exist")
+    void testGetProductsPageReturnsCursorWhenMoreRowsExist() {
+        List<Product> rows = List.of(
+                new Product(1L, "Laptop", "Powerful laptop", 1200.0, "Electronics", 0L),
+                new Product(2L, "Smartphone", "Latest smartphone", 800.0, "Electronics", 0L),
+                new Product(3L, "Book", "Interesting book", 600.0, "Books", 0L));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(rows);
+
+        CursorPage<Product> page = productService.getProductsPage(null, null);
+
+        assertEquals(2, page.getItems().size(), "Page should be trimmed to the default page size");
+        assertEquals(CursorCodec.encode(2L), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Test getProductsPage resumes after the cursor and ends on the last page")
+    void testGetProductsPageResumesAfterCursor() {
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(4)))
+                .thenReturn(new ArrayList<>(List.of(testProduct)));
+
+        CursorPage<Product> page = productService.getProductsPage(CursorCodec.encode(2L), 10);
+
+        assertEquals(List.of(testProduct), page.getItems());
+        assertNull(page.getNextCursor(), "Last page should not carry a cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not-a-cursor!", "YWJj"})
+    @DisplayName("Test getProductsPage rejects malformed cursors")
+    void testGetProductsPageRejectsMalformedCursor(String cursor) {
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductsPage(cursor, 1));
+        verifyNoInteractions(productRepository);
+    }
+
+
+    @Test
+    @DisplayName("Test getProductsByIds serves cache hits, loads misses in one query and keeps request order")
+    void testGetProductsByIdsMixesCacheAndDatabase() {
+        ConcurrentMapCache remote = new ConcurrentMapCache("products");
+        TwoTierCache cache = new TwoTierCache("products", remote, 100, new ProductCacheProperties.CacheSpec(),
+                message -> { }, "node-a", Runnable::run, CacheBatchOperations.ONE_BY_ONE);
+        remote.put(1L, testProduct);
+        Product phone = new Product(2L, "Smartphone", "Latest smartphone", 800.0, "Electronics", 0L);
+        when(cacheManager.getCache("products")).thenReturn(cache);
+        when(productRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(phone));
+
+        List<ProductLookupResult> results = productService.getProductsByIds(List.of(2L, 1L, 3L, 1L));
+
+        assertEquals(List.of(
+                new ProductLookupResult(2L, true, phone),
+                new ProductLookupResult(1L, true, testProduct),
+                new ProductLookupResult(3L, false, null),
+                new ProductLookupResult(1L, true, testProduct)), results);
+        assertEquals(phone, remote.get(2L).get(), "Loaded products should be written back to the cache");
+        verify(productRepository, times(1)).findAllById(List.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Test getProductsByIds rejects batches above the configured limit")
+    void testGetProductsByIdsRejectsOversizedBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByIds(List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+        verifyNoInteractions(productRepository, cacheManager);
+    }
+}
@@ -0,0 +1,169 @@
+package com.e_com.product.service;
+
+import com.e_com.product.model.ProductRatingSummary;
+import com.e_com.product.model.Review;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingSummaryServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private RatingSummaryService ratingSummaryService;
+
+    @Test
+    @DisplayName("Test recordReview increments the summary with one upsert")
+    void testRecordReviewUpsertsIncrements() {
+        Review review = new Review();
+        review.setProductId(7L);
+        review.setRating(4);
+        review.setReviewDate(LocalDateTime.of(2024, 5, 1, 12, 0));
+
+        ratingSummaryService.recordReview(review);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(ProductRatingSummary.class));
+        assertEquals(7L, query.getValue().getQueryObject().get("_id"));
+        Document increments = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(Map.of("count", 1L, "sum", 4L, "histogram.4", 1L), increments);
+        assertTrue(update.getValue().getUpdateObject().containsKey("$max"));
+    }
+
+    @Test
+    @DisplayName("Test recordReviews sends one summed upsert per product in a single bulk write")
+    void testRecordReviewsBulkUpsertsPerProduct() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        Cache cache = mock(Cache.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductRatingSummary.class)).thenReturn(bulk);
+        when(cacheManager.getCache(RatingSummaryService.RATING_SUMMARIES_CACHE)).thenReturn(cache);
+
+        ratingSummaryService.recordReviews(List.of(review(7L, 4, 1), review(8L, 2, 1), review(7L, 5, 2), review(7L, 4, 3)));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(queries.capture(), updates.capture());
+        verify(bulk).execute();
+        assertEquals(7L, queries.getAllValues().get(0).getQueryObject().get("_id"));
+        assertEquals(Map.of("count", 3L, "sum", 13L, "histogram.4", 2L, "histogram.5", 1L),
+                updates.getAllValues().get(0).getUpdateObject().get("$inc"));
+        assertEquals(new Document("lastUpdated", LocalDateTime.of(2024, 5, 3, 12, 0)),
+                updates.getAllValues().get(0).getUpdateObject().get("$max"));
+        verify(cache).evict(7L);
+        verify(cache).evict(8L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 6})
+    @DisplayName("Test recordReview rejects ratings outside 1-5")
+    void testRecordReviewRejectsInvalidRating(int rating) {
+        Review review = new Review();
+        review.setProductId(7L);
+        review.setRating(rating);
+
+        assertThrows(IllegalArgumentException.class, () -> ratingSummaryService.recordReview(review));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Test getSummary returns an empty summary for unreviewed products")
+    void testGetSummaryEmpty() {
+        when(mongoTemplate.findById(7L, ProductRatingSummary.class)).thenReturn(null);
+
+        ProductRatingSummary summary = ratingSummaryService.getSummary(7L);
+
+        assertEquals(0, summary.getCount());
+        assertNull(summary.getAverage());
+        assertEquals(ProductRatingSummary.emptyHistogram(), summary.getHistogram());
+    }
+
+    @Test
+    @DisplayName("Test getSummary fills in missing histogram buckets")
+    void testGetSummaryFillsHistogram() {
+        ProductRatingSummary stored = new ProductRatingSummary(7L, 2, 9, new HashMap<>(Map.of("4", 1L, "5", 1L)), null);
+        when(mongoTemplate.findById(7L, ProductRatingSummary.class)).thenReturn(stored);
+
+        ProductRatingSummary summary = ratingSummaryService.getSummary(7L);
+
+        assertEquals(4.5, summary.getAverage());
+        assertEquals(5, summary.getHistogram().size());
+        assertEquals(0L, summary.getHistogram().get("1"));
+    }
+
+    @Test
+    @DisplayName("Test rebuild pipeline groups by product and merges into the summaries")
+    void testRebuildPipeline() {
+        Date rebuiltAt = new Date();
+        List<Document> pipeline = RatingSummaryService.rebuildPipeline(rebuiltAt);
+
+        assertEquals(List.of("$match", "$group", "$project", "$merge"),
+                pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+        Document group = (Document) pipeline.get(1).get("$group");
+        assertEquals("$productId", group.get("_id"));
+        Document project = (Document) pipeline.get(2).get("$project");
+        assertEquals(new Document("$literal", rebuiltAt), project.get("rebuiltAt"));
+        Document merge = (Document) pipeline.get(3).get("$merge");
+        assertEquals("review_summaries", merge.get("into"));
+    }
+
+    @Test
+    @DisplayName("Test only summaries the rebuild did not write and whose product has no reviews are deleted")
+    void testDeleteStaleSummaries() {
+        Date rebuiltAt = new Date();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("review_summaries"))).thenReturn(List.of(
+                new Document("_id", 7L).append("count", 2L),
+                new Document("_id", 8L).append("count", 1L)));
+        // Product 8 got its first review while the pipeline ran
+        when(mongoTemplate.exists(any(Query.class), eq("reviews")))
+                .thenAnswer(invocation -> invocation.<Query>getArgument(0).getQueryObject().get("productId").equals(8L));
+        when(mongoTemplate.remove(any(Query.class), eq("review_summaries"))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertEquals(1, ratingSummaryService.deleteStaleSummaries(rebuiltAt));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq("review_summaries"));
+        Document filter = removed.getValue().getQueryObject();
+        assertEquals(7L, filter.get("_id"));
+        assertEquals(2L, filter.get("count"), "The delete is fenced on the count read");
+    }
+
+    private static Review review(long productId, int rating, int day) {
+        Review review = new Review();
+        review.setProductId(productId);
+        review.setRating(rating);
+        review.setReviewDate(LocalDateTime.of(2024, 5, day, 12, 0));
+        return review;
+    }
+}
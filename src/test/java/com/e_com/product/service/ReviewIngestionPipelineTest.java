@@ -0,0 +1,154 @@
+package com.e_com.product.service;
+
+import com.e_com.product.event.ReviewOutbox;
+import com.e_com.product.model.Review;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReviewIngestionPipelineTest {
+
+    private final ReviewOutbox reviewOutbox = mock(ReviewOutbox.class);
+    private final RatingSummaryService ratingSummaryService = mock(RatingSummaryService.class);
+    private ReviewIngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test reviews arriving together are stored as one batch and every caller's future completes")
+    void testReviewsAreGroupCommitted() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(reviewOutbox.saveAllWithEvents(anyList())).thenAnswer(invocation -> {
+            List<Review> reviews = invocation.getArgument(0);
+            batchSizes.add(reviews.size());
+            reviews.forEach(review -> review.setId("id-" + review.getUserId()));
+            return reviews;
+        });
+        pipeline = start(100, 3, Duration.ofMillis(200));
+
+        List<CompletableFuture<Review>> futures = new ArrayList<>();
+        for (long user = 1; user <= 5; user++) {
+            futures.add(pipeline.submit(review(user)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("id-" + (i + 1), futures.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(List.of(3, 2), batchSizes);
+        verify(ratingSummaryService, timeout(5000).times(2)).recordReviews(anyList());
+        assertEquals(2, pipeline.getStats().getBatches());
+        assertEquals(2.5, pipeline.getStats().getAverageBatchSize());
+    }
+
+    @Test
+    @DisplayName("Test a failed bulk insert is retried one review at a time so only the bad review fails")
+    void testFailedBatchFallsBackToSingleWrites() throws Exception {
+        Review good = review(1);
+        Review bad = review(2);
+        when(reviewOutbox.saveAllWithEvents(anyList())).thenThrow(new IllegalStateException("write conflict"));
+        when(reviewOutbox.saveWithEvent(good)).thenReturn(good);
+        when(reviewOutbox.saveWithEvent(bad)).thenThrow(new IllegalStateException("document too large"));
+        pipeline = start(100, 10, Duration.ofMillis(200));
+
+        CompletableFuture<Review> goodResult = pipeline.submit(good);
+        CompletableFuture<Review> badResult = pipeline.submit(bad);
+
+        assertSame(good, goodResult.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> badResult.get(5, TimeUnit.SECONDS));
+        assertEquals("document too large", failure.getCause().getMessage());
+        verify(ratingSummaryService, timeout(5000)).recordReviews(List.of(good));
+        assertEquals(1, pipeline.getStats().getFallbackBatches());
+    }
+
+    @Test
+    @DisplayName("Test a full queue turns reviews away instead of blocking the caller")
+    void testFullQueueRejects() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reviewOutbox.saveAllWithEvents(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        pipeline = start(1, 1, Duration.ZERO);
+
+        CompletableFuture<Review> first = pipeline.submit(review(1));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Review> queued = pipeline.submit(review(2));
+        CompletableFuture<Review> rejected = pipeline.submit(review(3));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertEquals(1, pipeline.getStats().getRejected());
+
+        release.countDown();
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        verify(reviewOutbox, never()).saveWithEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test reviews still queued when the writer is interrupted fail instead of hanging")
+    void testInterruptedWriterFailsQueuedReviews() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reviewOutbox.saveAllWithEvents(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            // What the Mongo driver does when its thread is interrupted mid-write
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        });
+        pipeline = start(10, 1, Duration.ZERO);
+
+        CompletableFuture<Review> first = pipeline.submit(review(1));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Review> second = pipeline.submit(review(2));
+        CompletableFuture<Review> third = pipeline.submit(review(3));
+        release.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<Review> queued : List.of(second, third)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        }
+        assertTrue(pipeline.submit(review(4)).isCompletedExceptionally());
+    }
+
+    private ReviewIngestionPipeline start(int queueCapacity, int maxBatchSize, Duration maxLinger) {
+        ReviewIngestionPipeline started = new ReviewIngestionPipeline(reviewOutbox, ratingSummaryService,
+                new SimpleMeterRegistry(), queueCapacity, maxBatchSize, maxLinger);
+        started.start();
+        return started;
+    }
+
+    private static Review review(long userId) {
+        Review review = new Review();
+        review.setProductId(7L);
+        review.setUserId(userId);
+        review.setRating(4);
+        review.setReviewDate(LocalDateTime.of(2024, 5, 1, 12, 0));
+        return review;
+    }
+}
@@ -0,0 +1,148 @@
+package com.e_com.product.service;
+
+import com.e_com.product.event.ReviewOutbox;
+import com.e_com.product.feign.UserServiceClient;
+import com.e_com.product.feign.VerifiedUserCache;
+import com.e_com.product.model.CursorPage;
+import com.e_com.product.model.Review;
+import com.e_com.product.model.ReviewSort;
+import com.e_com.product.readmodel.ReviewReadModel;
+import com.e_com.product.repository.ReviewRepository;
+import com.e_com.product.repository.ReviewRepositoryCustom;
+import com.e_com.product.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private VerifiedUserCache verifiedUserCache;
+
+    @Mock
+    private ReviewOutbox reviewOutbox;
+
+    @Mock
+    private RatingSummaryService ratingSummaryService;
+
+    @Mock
+    private ReviewReadModel reviewReadModel;
+
+    @Mock
+    private ObjectProvider<ReviewIngestionPipeline> ingestionPipeline;
+
+    @InjectMocks
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reviewService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(reviewService, "maxPageSize", 3);
+    }
+
+    @Test
+    @DisplayName("Test first review page returns a cursor positioned on its last review")
+    void testFirstPageReturnsCursor() {
+        Review first = review("a2", 5, LocalDateTime.of(2024, 5, 2, 10, 0));
+        Review second = review("a1", 4, LocalDateTime.of(2024, 5, 1, 10, 0));
+        Review extra = review("a0", 3, LocalDateTime.of(2024, 4, 30, 10, 0));
+        when(reviewRepository.findPage(ReviewRepositoryCustom.PRODUCT_ID, 7L, ReviewSort.RATING, null, 3))
+                .thenReturn(List.of(first, second, extra));
+
+        CursorPage<Review> page = reviewService.getReviewsByProductId(7L, null, null, "rating");
+
+        assertEquals(List.of(first, second), page.getItems());
+        assertEquals(CursorCodec.encode(4, second.getReviewDate(), "a1"), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Test a first newest page the read model can answer does not query Mongo")
+    void testFirstNewestPageServedFromReadModel() {
+        CursorPage<Review> cached = new CursorPage<>(List.of(review("a2", 5, LocalDateTime.of(2024, 5, 2, 10, 0))), null);
+        when(reviewReadModel.findLatest(7L, 2)).thenReturn(Optional.of(cached));
+
+        assertSame(cached, reviewService.getReviewsByProductId(7L, null, null, "newest"));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    @DisplayName("Test with batching on, a verified review is handed to the ingestion pipeline instead of stored")
+    void testAddReviewAsyncQueuesVerifiedReview() {
+        ReviewIngestionPipeline pipeline = mock(ReviewIngestionPipeline.class);
+        Review review = review(null, 4, null);
+        review.setUserId(11L);
+        UserServiceClient.UserDto user = new UserServiceClient.UserDto();
+        user.setId(11L);
+        when(verifiedUserCache.getUserById(11L)).thenReturn(user);
+        when(ingestionPipeline.getIfAvailable()).thenReturn(pipeline);
+        CompletableFuture<Review> stored = new CompletableFuture<>();
+        when(pipeline.submit(review)).thenReturn(stored);
+
+        assertSame(stored, reviewService.addReviewAsync(review));
+        assertNotNull(review.getReviewDate());
+        verifyNoInteractions(reviewOutbox, ratingSummaryService);
+    }
+
+    @Test
+    @DisplayName("Test review cursor is decoded into the keyset anchor")
+    void testCursorIsDecodedIntoAnchor() {
+        LocalDateTime date = LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123_000_000);
+        when(reviewRepository.findPage(eq(ReviewRepositoryCustom.USER_ID), eq(9L), eq(ReviewSort.NEWEST), any(), eq(4)))
+                .thenReturn(List.of());
+
+        CursorPage<Review> page = reviewService.getReviewsByUserId(9L, CursorCodec.encode(date, "a1"), 10, null);
+
+        ArgumentCaptor<Review> anchor = ArgumentCaptor.forClass(Review.class);
+        verify(reviewRepository).findPage(any(), any(), any(), anchor.capture(), anyInt());
+        assertEquals(date, anchor.getValue().getReviewDate());
+        assertEquals("a1", anchor.getValue().getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not-a-cursor", "MjAyNA"})
+    @DisplayName("Test malformed review cursors are rejected")
+    void testMalformedCursorRejected(String cursor) {
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewsByProductId(7L, cursor, null, "newest"));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    @DisplayName("Test unknown sort orders are rejected")
+    void testUnknownSortRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reviewService.getReviewsByProductId(7L, null, null, "oldest"));
+    }
+
+    private static Review review(String id, int rating, LocalDateTime date) {
+        Review review = new Review();
+        review.setId(id);
+        review.setProductId(7L);
+        review.setRating(rating);
+        review.setReviewDate(date);
+        return review;
+    }
+}
@@ -0,0 +1,88 @@
+package com.e_com.product.util;
+
+import com.e_com.product.security.JwtPrincipal;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "eW91cl9qd3Rfc2VjcmV0X2tleV8xMjM0NTY3ODkwMTIzNDU2Nzg5MDEyMzQ1Njc4OTA=";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 100);
+    }
+
+    @Test
+    @DisplayName("Test verify returns subject, roles and expiry from one parse")
+    void testVerifyReturnsPrincipal() {
+        Date expiry = new Date(System.currentTimeMillis() / 1000 * 1000 + 60_000);
+        String token = token("alice", List.of("ROLE_USER"), expiry);
+
+        JwtPrincipal principal = jwtUtil.verify(token);
+
+        assertEquals("alice", principal.subject());
+        assertEquals(List.of("ROLE_USER"), principal.roles());
+        assertEquals(expiry.toInstant(), principal.expiresAt());
+        assertTrue(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Test verified tokens are served from the cache")
+    void testVerifiedTokenCached() {
+        String token = token("alice", List.of("ROLE_USER"), new Date(System.currentTimeMillis() + 60_000));
+
+        assertSame(jwtUtil.verify(token), jwtUtil.verify(token));
+    }
+
+    @Test
+    @DisplayName("Test expired and tampered tokens are rejected")
+    void testInvalidTokensRejected() {
+        String expired = token("alice", List.of("ROLE_USER"), new Date(System.currentTimeMillis() - 1_000));
+        String valid = token("alice", List.of("ROLE_USER"), new Date(System.currentTimeMillis() + 60_000));
+        String tampered = valid.substring(0, valid.length() - 2) + (valid.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(expired));
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.validateToken(expired));
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    @DisplayName("Test tokens without an expiry are rejected")
+    void testTokenWithoutExpiryRejected() {
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim("roles", List.of("ROLE_USER"))
+                .signWith(KEY)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    private static String token(String subject, List<String> roles, Date expiry) {
+        return Jwts.builder()
+                .subject(subject)
+                .claim("roles", roles)
+                .issuedAt(new Date())
+                .expiration(expiry)
+                .signWith(KEY)
+                .compact();
+    }
+}